@@ -7,9 +7,15 @@ import org.biopax.paxtools.normalizer.Normalizer;
 import org.biopax.validator.BiopaxIdentifier;
 import org.biopax.validator.api.Validator;
 import org.biopax.validator.api.beans.Behavior;
+import org.biopax.validator.api.beans.RuleStats;
 import org.biopax.validator.api.beans.Validation;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
@@ -23,10 +29,15 @@ public class ValidatorService implements ValidatorAdapter {
 
   private Validator biopaxValidator; //to inject the biopax-validator
   private final String schema;
+  private final boolean statistics; //collect per-rule statistics (off by default)
+  private final MeterRegistry meterRegistry; //per-rule metrics (when available and the statistics enabled)
 
   @Autowired
-  public ValidatorService(Validator biopaxValidator) throws IOException {
+  public ValidatorService(Validator biopaxValidator, ObjectProvider<MeterRegistry> meterRegistry,
+                          @Value("${biopax.validator.statistics:false}") boolean statistics) throws IOException {
     this.biopaxValidator = biopaxValidator;
+    this.statistics = statistics;
+    this.meterRegistry = (statistics) ? meterRegistry.getIfAvailable() : null;
     this.schema = new String(FileCopyUtils.copyToByteArray(LOADER
       .getResource("classpath:validator-response-2.0.xsd").getInputStream()),"UTF-8");
   }
@@ -39,10 +50,12 @@ public class ValidatorService implements ValidatorAdapter {
     String dataDescr = data.getDescription();
     Validation validationResult = new Validation(new BiopaxIdentifier(),
         dataDescr, isFix, errorLevel, errMax, profile);
+    validationResult.setCollectStatistics(statistics);
     //run the biopax-validator (this updates the validationResult object)
     biopaxValidator.importModel(validationResult, data.getInputStream());
     biopaxValidator.validate(validationResult);
     biopaxValidator.getResults().remove(validationResult);
+    record(validationResult);
 
     if(isFix) { // do normalize too
       if(normalizer == null) //e.g., when '/check' called from a client/script, not JSP
@@ -66,4 +79,19 @@ public class ValidatorService implements ValidatorAdapter {
     return schema;
   }
 
+  // updates the per-rule meters (counters, including the rule's cumulative check time)
+  private void record(Validation validation) {
+    if(meterRegistry == null)
+      return;
+    for(RuleStats rs : validation.getStatistics()) {
+      Tags tags = Tags.of("rule", rs.getRule());
+      meterRegistry.counter("biopax.validator.rule.invocations", tags).increment(rs.getInvocations());
+      meterRegistry.counter("biopax.validator.rule.hits", tags).increment(rs.getHits());
+      meterRegistry.counter("biopax.validator.rule.errors", tags).increment(rs.getErrors());
+      //total time of all the check() calls (the per-check percentiles are in the validation's statistics)
+      Counter.builder("biopax.validator.rule.time.total").tags(tags).baseUnit("seconds")
+        .register(meterRegistry).increment(rs.getTotalTime() / 1e9);
+    }
+  }
+
 }
@@ -3,13 +3,11 @@ package org.biopax.validator;
 import java.io.InputStream;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.biopax.paxtools.controller.ModelUtils;
+import org.biopax.paxtools.controller.SimpleEditorMap;
 import org.biopax.paxtools.converter.LevelUpgrader;
 import org.biopax.paxtools.io.SimpleIOHandler;
 import org.biopax.paxtools.model.BioPAXElement;
@@ -27,8 +25,12 @@ import org.biopax.validator.api.Validator;
 import org.biopax.validator.api.beans.Behavior;
 import org.biopax.validator.api.beans.ErrorType;
 import org.biopax.validator.api.beans.Validation;
+import org.biopax.validator.utils.RuleExecutor;
+import org.biopax.validator.utils.WeakIdentityIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import javax.annotation.PostConstruct;
+
 
 /**
  * BioPAX Validator
@@ -47,17 +49,49 @@ public class BiopaxValidator implements Validator {
 
 	private final Set<Validation> results;
 
+	// object (model, model element, reader, stream, etc.) -> validations it was associated with (weak refs)
+	private final WeakIdentityIndex<Validation> associations;
+
+	// the validation being processed in the current thread (by importModel, rules)
+	private final ThreadLocal<Validation> current;
+
+	// rule dispatch index: object type (BioPAX model interface or Model class) -> rules with matching domain
+	private final Map<Class<?>, List<Rule<?>>> dispatch;
+
 	@Autowired
 	private ValidatorUtils utils;
 
+	@Autowired(required = false)
+	private RuleExecutor ruleExecutor;
+
 
 	public BiopaxValidator() {
 		results = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		associations = new WeakIdentityIndex<>();
+		current = new ThreadLocal<>();
+		dispatch = new ConcurrentHashMap<>();
+	}
+
+
+	/**
+	 * Builds the rule dispatch index for all the BioPAX L3 types
+	 * (other types are indexed on demand).
+	 */
+	@PostConstruct
+	public void init() {
+		dispatch.clear();
+		if (rules == null)
+			return;
+		for (Class<? extends BioPAXElement> type : SimpleEditorMap.L3.getKnownSubClassesOf(BioPAXElement.class)) {
+			getRules(type);
+		}
+		log.info("Indexed " + rules.size() + " rules for " + dispatch.size() + " BioPAX types");
 	}
 
 
 	public void setRules(Set<Rule<?>> rules) {
 		this.rules = rules;
+		dispatch.clear();
 	}
 
 
@@ -66,6 +100,48 @@ public class BiopaxValidator implements Validator {
 	}
 
 
+	/**
+	 * Gets the rules whose declared domain (see {@link Rule#getDomain()})
+	 * includes the type, i.e., only these rules can check objects of the type
+	 * (though, each rule's canCheck method still decides).
+	 * The result is cached (not updated if the rules set is modified in place).
+	 *
+	 * @param type BioPAX model interface or another class of objects to check
+	 * @return rules
+	 */
+	public List<Rule<?>> getRules(Class<?> type) {
+		return dispatch.computeIfAbsent(type, t -> {
+			List<Rule<?>> applicable = new ArrayList<>();
+			for (Rule<?> rule : rules) {
+				if (rule.getDomain().isAssignableFrom(t))
+					applicable.add(rule);
+			}
+			return Collections.unmodifiableList(applicable);
+		});
+	}
+
+
+	public RuleExecutor getRuleExecutor() {
+		return ruleExecutor;
+	}
+
+
+	public void setRuleExecutor(RuleExecutor ruleExecutor) {
+		this.ruleExecutor = ruleExecutor;
+	}
+
+	// lazily creates the default (shared) executor, if none was injected
+	private RuleExecutor ruleExecutor() {
+		if (ruleExecutor == null) {
+			synchronized (this) {
+				if (ruleExecutor == null)
+					ruleExecutor = new RuleExecutor();
+			}
+		}
+		return ruleExecutor;
+	}
+
+
 	public Collection<Validation> getResults() {
 		return results;
 	}
@@ -84,12 +160,13 @@ public class BiopaxValidator implements Validator {
 		if (!getResults().contains(validation)) {
 			getResults().add(validation);
 		}
+		// the model could be set directly (not via associate method)
+		index((Model) validation.getModel(), validation);
 
 
-		// break if max.errors exceeded (- reported by AOP interceptors, while parsing a file, or - in previous runs)
-		if (validation.isMaxErrorsSet()
-			&& validation.getNotFixedErrors() > validation.getMaxErrors()) {
-			log.info("Errors limit (" + validation.getMaxErrors() + ") is exceeded; exitting...");
+		// break if max.errors reached (- reported by AOP interceptors, while parsing a file, or - in previous runs)
+		if (validation.isMaxErrorsReached()) {
+			log.info("Errors limit (" + validation.getMaxErrors() + ") is reached; exitting...");
 			return;
 		}
 
@@ -100,7 +177,7 @@ public class BiopaxValidator implements Validator {
 
 		if(model.getLevel() != BioPAXLevel.L3) {
 			model = (new LevelUpgrader()).filter(model);
-			validation.setModel(model);
+			associate(model, validation);
 			log.info("Upgraded to BioPAX Level3 model: " + validation.getDescription());
 		}
 
@@ -108,45 +185,41 @@ public class BiopaxValidator implements Validator {
 
 		// Check/fix Rule<? extends BioPAXElement> rules concurrently (low risk of getting CMEx), 
 		// because they normally do minor changes and simply cannot add/remove
-		// elements in the Model (though, can alter a property of any biopax object)
-		ExecutorService exec = Executors.newFixedThreadPool(100);
+		// elements in the Model (though, can alter a property of any biopax object);
+		// tasks run in the shared executor (no threads are created per validation)
+		// (once the max. errors limit is reached, the batch gets cancelled - fail-fast)
+		final RuleExecutor.Batch elementsBatch = ruleExecutor().newBatch();
 
 		// First, check/fix individual objects
-		// (no need to copy; these rules cannot add/remove objects in model)
-		for (BioPAXElement el : model.getObjects())
-		{
-			// rules can check/fix specific elements
-//			for (Rule rule : rules) {				
-//				Behavior behavior = utils.getRuleBehavior(rule.getClass().getName(), validation.getProfile());    	
-//		        if (behavior == Behavior.IGNORE) 
-//		        	continue; // skip					
-//				execute(exec, rule, validation, (Object) el);
-//			}
-			//sequentially apply all (capable,enabled) rules to the object in a separate thread
-			execute(exec, rules, validation, (Object) el);
-		}
-		exec.shutdown(); //end accepting new jobs
-		try {
-			exec.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
-		} catch (InterruptedException e) {
-			throw new ValidatorException("Interrupted unexpectedly!");
-		}
+		// (no need to copy; these rules cannot add/remove objects in model);
+		// the objects are split into chunks, each checked (all rules) in a separate task
+		// (rules disabled in the validation profile are filtered out once per type)
+		final Set<Rule<?>> enabled = getEnabledRules(validation.getProfile());
+		final Map<Class<?>, List<Rule<?>>> active = new ConcurrentHashMap<>();
+		elementsBatch.forEach(model.getObjects(), el -> {
+			check(active.computeIfAbsent(el.getModelInterface(), t -> select(getRules(t), enabled)), validation, el);
+			if (validation.isMaxErrorsReached())
+				elementsBatch.cancel();
+		});
+		await(elementsBatch);
 
 		//Second, apply all Rule<Model> rules -
 		//run Rule<Model> rules concurrently
-		exec = Executors.newFixedThreadPool(50);
-		for (Rule rule : rules)
-		{
-			Behavior behavior = utils.getRuleBehavior(rule.getClass().getName(),
-        validation.getProfile());
-			if (behavior != Behavior.IGNORE)
-				execute(exec, rule, validation, model);
+		if (!validation.isMaxErrorsReached()) {
+			final RuleExecutor.Batch modelBatch = ruleExecutor().newBatch();
+			for (Rule rule : select(getRules(model.getClass()), enabled))
+			{
+				execute(modelBatch, rule, validation, model);
+			}
+			await(modelBatch);
 		}
-		exec.shutdown(); //end accepting jobs
-		try {
-			exec.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
-		} catch (InterruptedException e) {
-			throw new ValidatorException("Interrupted unexpectedly!");
+
+		if (validation.isMaxErrorsReached()) {
+			log.info("Errors limit (" + validation.getMaxErrors() + ") is reached; stopped validating "
+				+ validation.getDescription());
+			validation.setSummary("different types of problem: " + validation.getError().size()
+				+ "; stopped (max. errors limit reached)");
+			return;
 		}
 
 		log.debug("All rules checked!");
@@ -156,6 +229,8 @@ public class BiopaxValidator implements Validator {
 			model.repair();
 			// remove all dangling utility class objects
 			ModelUtils.removeObjectsIfDangling(model, UtilityClass.class);
+			// index the elements added by the fixes
+			index(model, validation);
 		}
 
 		// add comments and some statistics
@@ -168,53 +243,77 @@ public class BiopaxValidator implements Validator {
 		validation.addComment("number of pathways : "
 			+ model.getObjects(Pathway.class).size());
 
-		//update all error counts (total, fixed, notfixed)
-		for(ErrorType errorType : validation.getError()) {
-			errorType.setTotalCases(errorType.countErrors(null, null, false));
-			errorType.setNotFixedCases(errorType.countErrors(null, null, true));
-		}
-		validation.setNotFixedProblems(validation.countErrors(null, null, null, null, false, true));
-		validation.setNotFixedErrors(validation.countErrors(null, null, null, null, true, true));
-		validation.setTotalProblemsFound(validation.countErrors(null, null, null, null, false, false));
+		// (error counts - total, fixed, notfixed - are maintained by the validation object)
 		validation.setSummary("different types of problem: " + validation.getError().size());
 	}
 
-	private void execute(ExecutorService exec, final Rule rule,
+	private void await(RuleExecutor.Batch batch) {
+		try {
+			batch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ValidatorException("Interrupted unexpectedly!");
+		}
+	}
+
+	private void execute(RuleExecutor.Batch batch, final Rule<?> rule,
 											 final Validation validation, final Object obj)
 	{
-		exec.execute(new Runnable() {
-			@SuppressWarnings("unchecked") //obj can be either Model or a BPE
-			public void run() {
-				try {
-					if (rule.canCheck(obj))
-						rule.check(validation, obj);
-				} catch (Throwable t) {
-					//if we're here, there is probably a bug in the rule or validator!
-					String id = validation.identify(obj);
-					log.error(rule + ".check(" + id
-						+ ") threw the exception: " + t.toString(), t);
-					// anyway, report it almost normally (for a user to see this in the results too)
-					validation.addError(utils.createError(id, "exception",
-						rule.getClass().getName(), null, false, t));
-				}
+		batch.submit(() -> {
+			if (validation.isMaxErrorsReached()) {
+				batch.cancel(); //fail-fast
+				return;
 			}
+			check(Collections.singletonList(rule), validation, obj);
 		});
 	}
 
-	private void execute(ExecutorService exec, final Set<Rule<?>> rules,
-											 final Validation validation, final Object obj)
+	// rules that are not disabled (IGNORE behavior) in the profile
+	private Set<Rule<?>> getEnabledRules(String profile) {
+		Set<Rule<?>> enabled = new HashSet<>();
+		for (Rule<?> rule : rules) {
+			if (utils.getRuleBehavior(rule.getClass().getName(), profile) != Behavior.IGNORE)
+				enabled.add(rule);
+		}
+		return enabled;
+	}
+
+	private static List<Rule<?>> select(List<Rule<?>> rules, Set<Rule<?>> enabled) {
+		List<Rule<?>> selected = new ArrayList<>(rules.size());
+		for (Rule<?> rule : rules) {
+			if (enabled.contains(rule))
+				selected.add(rule);
+		}
+		return selected;
+	}
+
+	//sequentially apply all the (capable) rules to the object
+	//(and record per-rule statistics, if enabled)
+	@SuppressWarnings("unchecked") //obj can be either Model or a BPE
+	private void check(final List<Rule<?>> rules, final Validation validation, final Object obj)
 	{
-		//obj can be either Model or a BPE
-		exec.execute(() -> {
+		final boolean stats = validation.isCollectStatistics();
+		final Validation previous = current.get();
+		current.set(validation);
+		try {
 			for(Rule rule : rules) {
-				Behavior behavior = utils.getRuleBehavior(rule.getClass().getName(),
-validation.getProfile());
-				if (behavior == Behavior.IGNORE)
-					continue; // skip disabled rule
-
+				if (validation.isMaxErrorsReached())
+					break; //fail-fast
 				try {
-					if (rule.canCheck(obj))
-						rule.check(validation, obj);
+					if (!stats) {
+						if (rule.canCheck(obj))
+							rule.check(validation, obj);
+					} else if (rule.canCheck(obj)) {
+						final long start = System.nanoTime();
+						try {
+							rule.check(validation, obj);
+						} finally {
+							validation.getRuleStats(rule.getClass().getName())
+								.record(true, System.nanoTime() - start);
+						}
+					} else {
+						validation.getRuleStats(rule.getClass().getName()).record(false, 0);
+					}
 				} catch (Throwable t) {
 					//if we're here, there is probably a bug in the rule or validator!
 					String id = validation.identify(obj);
@@ -225,7 +324,9 @@ validation.getProfile());
 						rule.getClass().getName(), null, false, t));
 				}
 			}
-		});
+		} finally {
+			current.set(previous);
+		}
 	}
 
 
@@ -238,8 +339,16 @@ validation.getProfile());
 		/*
 		 * build a model and associate it with the validation (for post-validation later on);
 		 * during this, many errors/warnings may be caught and reported via AOP ;))
+		 * (the parser runs in this thread, which is now bound to the validation)
 		 */
-		Model model = simpleReader.convertFromOWL(inputStream);
+		Model model;
+		final Validation previous = current.get();
+		current.set(validation);
+		try {
+			model = simpleReader.convertFromOWL(inputStream);
+		} finally {
+			current.set(previous);
+		}
 
 		if(model == null)
 			throw new ValidatorException("Failed importing a BioPAX model!");
@@ -263,6 +372,20 @@ validation.getProfile());
 		} else if(obj != null) {
 			validation.getObjects().add(obj);
 		}
+
+		if(obj instanceof Model && validation != null)
+			index((Model) obj, validation);
+		else if(obj != null && validation != null)
+			associations.add(obj, validation);
+	}
+
+	/*
+	 * Associates the model and its current elements with the validation
+	 * (elements share the model's entry in the index, and so they're found in constant time).
+	 */
+	private void index(Model model, Validation validation) {
+		associations.add(model, validation);
+		associations.link(model, model.getObjects());
 	}
 
 
@@ -277,21 +400,10 @@ validation.getProfile());
 			return keys;
 		}
 
-		for(Validation r: results) {
-			if (r.getObjects().contains(o)
-				|| o.equals(r.getModel()))
-			{
+		// associated objects (models, their elements, readers, etc.) are looked up in the index
+		for(Validation r: associations.get(o)) {
+			if (results.contains(r)) // skip those removed from the registry
 				keys.add(r);
-			}
-			else if (o instanceof BioPAXElement)
-			{
-				// associate using member models
-				BioPAXElement bpe = (BioPAXElement) o;
-				Model m = (Model) r.getModel();
-				if (m != null && m.contains(bpe)) {
-					keys.add(r);
-				}
-			}
 		}
 
 		if (keys.isEmpty())
@@ -322,6 +434,10 @@ validation.getProfile());
 	 * register problems that occur in external modules, such as Paxtools,
 	 * during the data read and/or modify.
 	 *
+	 * If the current thread is processing a validation 
+	 * (importing the model or running the rules), the problem is reported 
+	 * to that validation without searching the registry.
+	 *
 	 */
 	public void report(Object obj, String errorCode, String reportedBy, boolean isFixed, Object... args)
 	{
@@ -332,7 +448,9 @@ validation.getProfile());
 		}
 
 
-		Collection<Validation> validations = findValidation(obj);
+		final Validation v0 = current.get();
+		Collection<Validation> validations = (v0 != null)
+			? Collections.singleton(v0) : findValidation(obj);
 		if(validations.isEmpty()) {
 			// the object is not associated neither with parser nor model
 			log.warn("No validations are associated with the object: "
@@ -177,7 +177,14 @@ public abstract class CvTermsRule<T extends Level3Element> extends AbstractCvRul
                 if(validTermIs.contains(term)) {
                   OntologyAccess ont = ontologyUtils.getOntologyManager().getOntology(term.getOntologyId());
                   //if term's parents does not contain any of these terms
-                  if(Collections.disjoint(ots, ont.getAllParents(term))) {
+                  boolean top = true;
+                  for (OntologyTermI other : ots) {
+                    if (ont.isAncestor(other, term)) {
+                      top = false;
+                      break;
+                    }
+                  }
+                  if(top) {
                     topvalids.add(term);
                   }
                 }
@@ -1,6 +1,9 @@
 package org.biopax.validator.rules;
 
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -38,6 +41,14 @@ public class BindingFeatureExtraRules extends AbstractRule<Model> {
 						&& a.getBindsTo().isEquivalent(b.getBindsTo());
 				return !a.isEquivalent(b) && ab;
 			}
+
+			@Override
+			protected Collection<?> keys(BindingFeature element) {
+				// equivalent bindsTo features are either equal or bind to the same feature (or both to null)
+				BindingFeature bindsTo = element.getBindsTo();
+				return (bindsTo == null) ? Collections.emptySet()
+					: Arrays.asList(bindsTo, bindsTo.getBindsTo());
+			}
 		};
 		
 		Set<Set<BindingFeature>> violations 
@@ -1,14 +1,20 @@
 package org.biopax.validator.rules;
 
 
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.biopax.paxtools.controller.ModelUtils;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
-import org.biopax.paxtools.model.level3.UtilityClass;
+import org.biopax.paxtools.model.level3.*;
 import org.biopax.validator.AbstractRule;
 import org.biopax.validator.api.beans.Validation;
 import org.biopax.validator.utils.Cluster;
@@ -18,21 +24,37 @@ import org.springframework.stereotype.Component;
  * Checks equivalent (duplicated) UtilityClass instances.
  * It collects/reports all duplicates. 
  * 
+ * Only the objects that have the same structural fingerprint
+ * (BioPAX type and the properties that isEquivalent compares, e.g., xref db/id,
+ * CV unification xrefs or terms, sequence positions) are compared.
+ *
  * @author rodche
  */
 @Component
 public class ClonedUtilityClassRule extends	AbstractRule<Model> {
 	
 	public void check(final Validation validation, Model model) {
+		// fingerprints (in parallel); objects that cannot have clones are left out
+		final Map<UtilityClass, Collection<?>> fingerprints = model.getObjects(UtilityClass.class)
+			.parallelStream()
+			.map(u -> new SimpleEntry<UtilityClass, Collection<?>>(u, fingerprints(u)))
+			.filter(e -> !e.getValue().isEmpty())
+			.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
 		Cluster<UtilityClass> algorithm = new Cluster<UtilityClass>() {
 			@Override
 			public boolean match(UtilityClass a, UtilityClass b) {
 				return !a.equals(b) && a.isEquivalent(b);
 			}
+
+			@Override
+			protected Collection<?> keys(UtilityClass element) {
+				return fingerprints.get(element);
+			}
 		};
 		
 		Set<Set<UtilityClass>> clusters 
-			= algorithm.cluster(model.getObjects(UtilityClass.class), Integer.MAX_VALUE);
+			= algorithm.cluster(fingerprints.keySet(), Integer.MAX_VALUE);
 		
 		Map<UtilityClass, UtilityClass> replacementMap = new HashMap<UtilityClass, UtilityClass>();
 		
@@ -68,4 +90,85 @@ public class ClonedUtilityClassRule extends	AbstractRule<Model> {
 		return thing instanceof Model 
 			&& ((Model)thing).getLevel() == BioPAXLevel.L3;
 	}	
+
+	/*
+	 * Blocking keys, such that equivalent objects share at least one
+	 * (follows the paxtools' semanticallyEquivalent implementations):
+	 * the BioPAX type plus the properties that must be equal (or equal ignoring case);
+	 * no keys - for the objects that are never equivalent to others.
+	 */
+	private static Collection<?> fingerprints(UtilityClass u) {
+		final Class<?> type = u.getModelInterface();
+
+		if (u instanceof Xref) {
+			return Collections.singleton(xrefKey((Xref) u));
+		}
+		else if (u instanceof ControlledVocabulary || u instanceof BioSource) {
+			// equivalent ones have an equivalent unification xref, or both have none
+			Collection<Object> keys = new ArrayList<Object>();
+			for (Xref x : ((XReferrable) u).getXref()) {
+				if (x instanceof UnificationXref)
+					keys.add(Arrays.asList(type, xrefKey(x)));
+			}
+			if (keys.isEmpty() && u instanceof ControlledVocabulary) {
+				// then, a CV term in common (or both have no terms)
+				for (String term : ((ControlledVocabulary) u).getTerm())
+					keys.add(Arrays.asList(type, term));
+			}
+			if (keys.isEmpty())
+				keys.add(type);
+			return keys;
+		}
+		else if (u instanceof SequenceEntityReference) {
+			SequenceEntityReference r = (SequenceEntityReference) u;
+			return (r.getOrganism() == null || r.getSequence() == null) ? Collections.emptySet()
+				: Collections.singleton(Arrays.asList(type, DuplicateIdCaseInsensitiveRule.foldCase(r.getSequence())));
+		}
+		else if (u instanceof SequenceLocation) {
+			Object key = locationKey((SequenceLocation) u);
+			return (key == null) ? Collections.emptySet() : Collections.singleton(key);
+		}
+		else if (u instanceof EntityFeature) {
+			// equivalent ones are at equivalent locations of equivalent entity references
+			EntityFeature f = (EntityFeature) u;
+			Object location = locationKey(f.getFeatureLocation());
+			return (location == null || f.getEntityFeatureOf() == null) ? Collections.emptySet()
+				: Collections.singleton(Arrays.asList(type, location));
+		}
+		else if (u instanceof Stoichiometry) {
+			Stoichiometry s = (Stoichiometry) u;
+			// (adding 0 turns -0.0 into 0.0, which are equal numbers)
+			return (s.getPhysicalEntity() == null) ? Collections.emptySet()
+				: Collections.singleton(Arrays.asList(type, s.getStoichiometricCoefficient() + 0.0f, s.getPhysicalEntity()));
+		}
+		else if (u instanceof SmallMoleculeReference || u instanceof Provenance
+			|| u instanceof Score || u instanceof ExperimentalForm) {
+			return Collections.emptySet();
+		}
+		else {
+			return Collections.singleton(type);
+		}
+	}
+
+	private static Object xrefKey(Xref x) {
+		return Arrays.asList(x.getModelInterface(),
+			(x.getDb() == null) ? null : DuplicateIdCaseInsensitiveRule.foldCase(x.getDb()), x.getId(),
+			(x.getDbVersion() == null) ? null : DuplicateIdCaseInsensitiveRule.foldCase(x.getDbVersion()),
+			x.getIdVersion());
+	}
+
+	// null when the location cannot be equivalent to another
+	private static Object locationKey(SequenceLocation l) {
+		if (l instanceof SequenceSite) {
+			SequenceSite s = (SequenceSite) l;
+			return Arrays.asList(SequenceSite.class, s.getSequencePosition(), s.getPositionStatus());
+		} else if (l instanceof SequenceInterval) {
+			SequenceInterval i = (SequenceInterval) l;
+			return (i.getSequenceIntervalBegin() == null || i.getSequenceIntervalEnd() == null) ? null
+				: Arrays.asList(SequenceInterval.class,
+					locationKey(i.getSequenceIntervalBegin()), locationKey(i.getSequenceIntervalEnd()));
+		} else {
+			return l;
+		}
+	}
 }
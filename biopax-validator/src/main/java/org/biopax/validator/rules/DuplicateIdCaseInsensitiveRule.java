@@ -1,43 +1,65 @@
 package org.biopax.validator.rules;
 
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.Model;
 import org.biopax.validator.AbstractRule;
 import org.biopax.validator.api.beans.Validation;
-import org.biopax.validator.utils.Cluster;
 import org.springframework.stereotype.Component;
 
 /**
  * Checks for "duplicate" IDs - when they're compared ignoring case.
- * 
+ * (groups the objects by case-folded URI in a single pass)
+ *
  * @author rodche
  */
 @Component
 public class DuplicateIdCaseInsensitiveRule extends	AbstractRule<Model> {
-	
-	public void check(final Validation validation, Model model) {		
-		Cluster<BioPAXElement> algorithm = new Cluster<BioPAXElement>() {
-			@Override
-			public boolean match(BioPAXElement a, BioPAXElement b) {
-				return !a.equals(b) && a.getUri().equalsIgnoreCase(b.getUri());
+
+	public void check(final Validation validation, Model model) {
+		// case-folded URI -> the first object; and the groups of duplicates (only)
+		Map<String, BioPAXElement> firsts = new HashMap<String, BioPAXElement>();
+		Map<String, Set<BioPAXElement>> clasters = new HashMap<String, Set<BioPAXElement>>();
+		for (BioPAXElement e : model.getObjects()) {
+			String key = foldCase(e.getUri());
+			BioPAXElement first = firsts.putIfAbsent(key, e);
+			if (first != null && !first.equals(e)) {
+				Set<BioPAXElement> duplicates = clasters.get(key);
+				if (duplicates == null) {
+					duplicates = new HashSet<BioPAXElement>();
+					duplicates.add(first);
+					clasters.put(key, duplicates);
+				}
+				duplicates.add(e);
 			}
-		};
-		
-		Set<Set<BioPAXElement>> clasters 
-			= algorithm.cluster(model.getObjects(), Integer.MAX_VALUE);
-		
+		}
+
 		// report the error once for each cluster
-		for (Set<BioPAXElement> duplicates : clasters) {
-			if(duplicates.size() > 1) {
-				BioPAXElement u = duplicates.iterator().next();
-				duplicates.remove(u); // keep the first element
-				error(validation, u, "duplicate.id.ignoringcase", false, 
-					duplicates, u.getModelInterface().getSimpleName());
-			}
+		for (Set<BioPAXElement> duplicates : clasters.values()) {
+			BioPAXElement u = duplicates.iterator().next();
+			duplicates.remove(u); // keep the first element
+			error(validation, u, "duplicate.id.ignoringcase", false,
+				duplicates, u.getModelInterface().getSimpleName());
+		}
+	}
+
+	/*
+	 * Same value for any two strings that are equal ignoring case
+	 * (as String.equalsIgnoreCase compares them, char by char).
+	 */
+	static String foldCase(String s) {
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); ) {
+			int c = s.codePointAt(i);
+			sb.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c)));
+			i += Character.charCount(c);
 		}
+		return sb.toString();
 	}
 
 	public boolean canCheck(Object thing) {
@@ -11,7 +11,9 @@ import org.biopax.validator.AbstractRule;
 import org.biopax.validator.api.beans.Validation;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -20,55 +22,46 @@ import java.util.Set;
  * is owned by multiple EntityReferences, which violates the entityFeature 
  * property's 'inverse functional' BioPAX L3 OWL constraint.
  *
+ * The owner entity references of each feature are found using a reverse index
+ * (built in one pass), which drives both the check and the fix.
+ *
  */
 @Component
 public class EntityFeatureInverseFunctionalRule extends AbstractRule<Model>{
 
     public void check(final Validation validation, Model model) {
-       	Set<EntityFeature> efs =  new HashSet<EntityFeature>(model.getObjects(EntityFeature.class));//defensive copy
-       	Set<EntityReference> ers =  new HashSet<EntityReference>(model.getObjects(EntityReference.class));
-       	
-       	for(EntityFeature ef: efs) {           		
-       		EntityReference efOf = ef.getEntityFeatureOf();	//the last assigned or the only owner ER of this EF
-       		//if the model does not contain the efOf object, no worries, we'll check this rule anyway  		      		
-       		Set<EntityReference> ownerEntityRefs = new HashSet<EntityReference>();
-       		for(EntityReference er : ers) {
-       			if(!er.getEntityFeature().contains(ef))
-       				continue; //skip
-       			
-       			ownerEntityRefs.add(er); //owner ER found!
-       			
-       			if(er.equals(efOf)) {
-       				continue; //no fix required for this one
-       			}
-       			
-       			if(validation.isFix()) {     		    	
-   		    		//do fix (make a new EF copy, replace in the properties)
-   		    		String newUri = Normalizer.uri(er.getUri() + "_", null, ef.getUri(), ef.getModelInterface());
-   		    		EntityFeature newEf = (new ShallowCopy()).copy(ef, newUri);
-   		    		model.add(newEf);
-   		    		er.removeEntityFeature(ef);
-   		    		er.addEntityFeature(newEf);
-       		    	for(SimplePhysicalEntity spe : er.getEntityReferenceOf()) {
-       		    		//replace the ef with newEf in the ER and in all owner SPEs
-       		    		if(spe.getFeature().contains(ef)) {
-       		    			spe.removeFeature(ef);
-       		    			spe.addFeature(newEf);
-       		    		} 
-       		    		if(spe.getNotFeature().contains(ef)) {
-       		    			spe.removeNotFeature(ef);
-       		    			spe.addNotFeature(newEf);
-       		    		}
-       		    	}	    		
+       	// EF -> owner ERs (a reverse index built in one pass over the entity references)
+       	Map<EntityFeature, Set<EntityReference>> owners = new HashMap<EntityFeature, Set<EntityReference>>();
+       	for(EntityReference er : model.getObjects(EntityReference.class)) {
+       		for(EntityFeature ef : er.getEntityFeature()) {
+       			if(!model.contains(ef))
+       				continue; //only the model's features are checked
+       			Set<EntityReference> ownerEntityRefs = owners.get(ef);
+       			if(ownerEntityRefs == null) {
+       				ownerEntityRefs = new HashSet<EntityReference>();
+       				owners.put(ef, ownerEntityRefs);
        			}
+       			ownerEntityRefs.add(er); //owner ER found!
        		}
-       		
-       		//if ersToFix.isEmpty()==true - dangling EF - the other rule can fix (if this EF belongs to a PE)
+       	}
+       	//EFs that no ER owns (dangling) are not here - the other rule can fix (if this EF belongs to a PE)
+       	
+       	for(Map.Entry<EntityFeature, Set<EntityReference>> entry : owners.entrySet()) {
+       		EntityFeature ef = entry.getKey();
+       		Set<EntityReference> ownerEntityRefs = entry.getValue();
+       		EntityReference efOf = ef.getEntityFeatureOf();	//the last assigned or the only owner ER of this EF
+       		//if the model does not contain the efOf object, no worries, we'll check this rule anyway
        		
        		if(ownerEntityRefs.size()>1) {
+       			if(validation.isFix()) {
+       				for(EntityReference er : ownerEntityRefs) {
+       					if(!er.equals(efOf)) //no fix required for that one
+       						replace(model, er, ef);
+       				}
+       			}
        			error(validation, ef, "inverse.functional.violated", validation.isFix(), "entityFeature", ef, ownerEntityRefs.toString());	
        		} 
-       		else if(ownerEntityRefs.size()==1) {  
+       		else {  
        			EntityReference er = ownerEntityRefs.iterator().next();
        			if(efOf == null || !efOf.equals(er)) { 
        				//provided ersToFix.size()==1, this here should never happen unless Paxtools API's hacked, or the model's incomplete...
@@ -85,6 +78,28 @@ public class EntityFeatureInverseFunctionalRule extends AbstractRule<Model>{
        	}
     }
 
+    /*
+     * Makes a new copy of the feature and replaces the feature
+     * with the copy in the entity reference and in all its owner SPEs.
+     */
+    private void replace(Model model, EntityReference er, EntityFeature ef) {
+		String newUri = Normalizer.uri(er.getUri() + "_", null, ef.getUri(), ef.getModelInterface());
+		EntityFeature newEf = (new ShallowCopy()).copy(ef, newUri);
+		model.add(newEf);
+		er.removeEntityFeature(ef);
+		er.addEntityFeature(newEf);
+		for(SimplePhysicalEntity spe : er.getEntityReferenceOf()) {
+			if(spe.getFeature().contains(ef)) {
+				spe.removeFeature(ef);
+				spe.addFeature(newEf);
+			} 
+			if(spe.getNotFeature().contains(ef)) {
+				spe.removeNotFeature(ef);
+				spe.addNotFeature(newEf);
+			}
+		}
+    }
+
 	public boolean canCheck(Object thing) {
 		return thing instanceof Model;
 	}
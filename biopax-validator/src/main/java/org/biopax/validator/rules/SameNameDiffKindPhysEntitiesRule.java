@@ -1,16 +1,21 @@
 package org.biopax.validator.rules;
 
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.collections15.CollectionUtils;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.EntityReference;
 import org.biopax.paxtools.model.level3.SimplePhysicalEntity;
 import org.biopax.validator.AbstractRule;
 import org.biopax.validator.api.beans.Validation;
-import org.biopax.validator.utils.Cluster;
+import org.biopax.validator.utils.UnionFind;
 import org.springframework.stereotype.Component;
 
 /**
@@ -18,6 +23,9 @@ import org.springframework.stereotype.Component;
  * (using different EntityReference) do not share
  * names.
  * 
+ * Entities are indexed by name, and only those sharing a name are compared
+ * (their entity references); the groups are merged with union-find.
+ *
  * @author rodche
  */
 @Component
@@ -25,36 +33,98 @@ public class SameNameDiffKindPhysEntitiesRule extends
 		AbstractRule<Model> {
 
 	public void check(final Validation validation, Model model) {
-			Set<SimplePhysicalEntity> peers = new HashSet<SimplePhysicalEntity>(
-				model.getObjects(SimplePhysicalEntity.class));
-			
-			Cluster<SimplePhysicalEntity> groupping =
-				new Cluster<SimplePhysicalEntity>() {
-					@Override
-					public boolean match(SimplePhysicalEntity a,
-							SimplePhysicalEntity b) {
-						return !a.equals(b) 
-							&& a.getEntityReference() != null
-							&& !a.getName().isEmpty() && !b.getName().isEmpty()
-							&& !a.getEntityReference().isEquivalent(b.getEntityReference())
-							&& CollectionUtils.containsAny(a.getName(), b.getName());
+			// inverted index: name -> entities (ordinals)
+			List<SimplePhysicalEntity> entities = new ArrayList<SimplePhysicalEntity>();
+			Map<String, List<Integer>> index = new HashMap<String, List<Integer>>();
+			for (SimplePhysicalEntity spe : model.getObjects(SimplePhysicalEntity.class)) {
+				if (spe.getName().isEmpty())
+					continue;
+				int i = entities.size();
+				entities.add(spe);
+				for (String name : spe.getName()) {
+					List<Integer> named = index.get(name);
+					if (named == null) {
+						named = new ArrayList<Integer>(2);
+						index.put(name, named);
 					}
-			};
-			
-			Set<Set<SimplePhysicalEntity>> sharedNamesClusters = 
-				groupping.cluster(peers, Integer.MAX_VALUE);
-				
+					named.add(i);
+				}
+			}
+
+			UnionFind groupping = new UnionFind(entities.size());
+			for (List<Integer> named : index.values()) {
+				if (named.size() > 1)
+					merge(named, entities, groupping);
+			}
+
+			Map<Integer, Set<SimplePhysicalEntity>> sharedNamesClusters =
+				new HashMap<Integer, Set<SimplePhysicalEntity>>();
+			for (int i = 0; i < entities.size(); i++) {
+				if (groupping.size(i) > 1) {
+					int root = groupping.find(i);
+					Set<SimplePhysicalEntity> cluster = sharedNamesClusters.get(root);
+					if (cluster == null) {
+						cluster = new HashSet<SimplePhysicalEntity>();
+						sharedNamesClusters.put(root, cluster);
+					}
+					cluster.add(entities.get(i));
+				}
+			}
+
 			// report the error once for each cluster
-			for (Set<SimplePhysicalEntity> sharedNames : sharedNamesClusters) 
+			for (Set<SimplePhysicalEntity> sharedNames : sharedNamesClusters.values())
 			{
-				if(sharedNames.size() > 1) {
-					SimplePhysicalEntity a = sharedNames.iterator().next();
-					error(validation, a, "diff.kind.same.name",	false, sharedNames);
+				SimplePhysicalEntity a = sharedNames.iterator().next();
+				error(validation, a, "diff.kind.same.name",	false, sharedNames);
+			}
+	}
+
+	/*
+	 * Joins the entities having the same name but not equivalent entity references
+	 * (or no entity reference vs. some); entities with the same reference are compared once.
+	 */
+	private void merge(List<Integer> named, List<SimplePhysicalEntity> entities, UnionFind groupping) {
+		// group by entity reference (null too)
+		Map<EntityReference, List<Integer>> byRef = new LinkedHashMap<EntityReference, List<Integer>>();
+		for (int i : named) {
+			EntityReference er = entities.get(i).getEntityReference();
+			List<Integer> group = byRef.get(er);
+			if (group == null) {
+				group = new ArrayList<Integer>(2);
+				byRef.put(er, group);
+			}
+			group.add(i);
+		}
+		if (byRef.size() < 2)
+			return;
+
+		List<EntityReference> refs = new ArrayList<EntityReference>(byRef.keySet());
+		boolean[] joined = new boolean[refs.size()];
+		for (int x = 1; x < refs.size(); x++) {
+			EntityReference a = refs.get(x);
+			for (int y = 0; y < x; y++) {
+				EntityReference b = refs.get(y);
+				if ((a != null && !a.isEquivalent(b)) || (b != null && !b.isEquivalent(a))) {
+					// all the entities of both groups are then connected
+					List<Integer> ga = byRef.get(a);
+					List<Integer> gb = byRef.get(b);
+					if (!joined[x]) {
+						for (int i : ga)
+							groupping.union(i, gb.get(0));
+						joined[x] = true;
+					}
+					if (!joined[y]) {
+						for (int i : gb)
+							groupping.union(i, ga.get(0));
+						joined[y] = true;
+					}
+					groupping.union(ga.get(0), gb.get(0));
 				}
 			}
+		}
 	}
 
-	
+
 	public boolean canCheck(Object thing) {
 		return thing instanceof Model
 			&& ((Model)thing).getLevel()==BioPAXLevel.L3;
@@ -2,81 +2,122 @@ package org.biopax.validator.utils;
 
 import java.util.*;
 
+/**
+ * Groups elements using blocking keys and a match predicate.
+ *
+ * Each element maps to one or more candidate (blocking) keys,
+ * and the {@link #match(Object, Object)} is tested only for the elements
+ * that share a key (and are not in the same cluster yet);
+ * matching elements are merged using a union-find (disjoint sets) structure.
+ * So, with selective keys, the clustering takes nearly linear time
+ * instead of comparing each element to all the others.
+ */
 public abstract class Cluster<T> {
-	
+
+	private static final Collection<Object> SAME_KEY = Collections.singleton(Boolean.TRUE);
+
 	/**
 	 * Implemented in concrete subclasses.
 	 * Must be "symmetric"; may be "transitive" or not (you decide) -
-	 * 
+	 *
 	 * @param a an object
 	 * @param b another object of the same type
 	 * @return true/false
 	 */
 	public abstract boolean match(T a, T b);
-	
 
 	/**
-	 * Puts elements into sets of "similar" ones. 
+	 * Blocking keys of the element (candidate groups).
+	 * Only the elements that have a key in common are compared;
+	 * i.e., if match(a,b) is true, then a and b must share at least one key
+	 * (keys are compared with equals/hashCode; null is a valid key).
+	 * An element with no keys (empty collection or null) forms a single-element cluster.
+	 *
+	 * By default, all the elements have the same key, and
+	 * every pair (in different clusters) is compared.
+	 *
+	 * @param element an object
+	 * @return keys
+	 */
+	protected Collection<?> keys(T element) {
+		return SAME_KEY;
+	}
+
+	/**
+	 * Puts elements into sets of "similar" ones.
 	 * Every object belongs to exactly one cluster.
 	 * Clusters contain at least one object.
-	 * 
+	 *
 	 * If concrete {@link #match(Object, Object)} method
 	 * is not transitive, this produces such groups, where,
 	 * match(A,B) is not necessarily true for all pairs in
 	 * the same cluster, but there exists Z, such as,
 	 * match(X,Z) and match(Y,Z) are true.
-	 * 
+	 *
 	 * @see #match(Object, Object)
-	 * 
+	 * @see #keys(Object)
+	 *
 	 * @param elements objects
 	 * @param clusterMaxSize max. size of a cluster
 	 * @return groups of objects
 	 */
 	public final Set<Set<T>> cluster(Collection<T> elements, int clusterMaxSize) {
-		Set<Set<T>> clusters = new HashSet<Set<T>>();
-		for (T u : new HashSet<T>(elements)) {
-			Set<Set<T>> toMerge = new HashSet<Set<T>>();
-			for (Set<T> clu : clusters) {
-				if(!clu.isEmpty() && matchAny(u, clu)) {
-					clu.add(u);
-					toMerge.add(clu);
+		final List<T> items = new ArrayList<T>(new LinkedHashSet<T>(elements));
+		final int n = items.size();
+
+		// blocking: key -> ordinals of the elements
+		final Map<Object, int[]> buckets = new HashMap<Object, int[]>();
+		for (int i = 0; i < n; i++) {
+			Collection<?> keys = keys(items.get(i));
+			if (keys == null)
+				continue;
+			for (Object key : keys) {
+				int[] bucket = buckets.get(key); // [0] is the size
+				if (bucket == null) {
+					bucket = new int[4];
+					buckets.put(key, bucket);
+				} else if (bucket[bucket[0]] == i) {
+					continue; // same key twice
 				}
-			}
-			
-			if(toMerge.isEmpty()) { //create a new cluster 
-				Set<T> group = new HashSet<T>();
-				group.add(u);
-				clusters.add(group);
-			} else if (toMerge.size() > 1) {
-				// merge several groups into the first one
-				Iterator<Set<T>> it = toMerge.iterator();
-				Set<T> group = it.next();
-				assert !group.isEmpty();
-				while(it.hasNext()) {
-					Set<T> g = it.next();
-					group.addAll(g);
-					g.clear();
+				if (bucket[0] + 1 == bucket.length) {
+					bucket = Arrays.copyOf(bucket, bucket.length * 2);
+					buckets.put(key, bucket);
 				}
+				bucket[++bucket[0]] = i;
 			}
 		}
-		
-		//remove empty groups
-		Set<Set<T>> result = new HashSet<Set<T>>();
-		for(Set<T> clu : clusters) {
-			if(!clu.isEmpty())
-				result.add(clu);
+
+		// union-find over the ordinals, comparing the elements within each bucket only
+		final UnionFind sets = new UnionFind(n);
+		for (int[] bucket : buckets.values()) {
+			for (int x = 2; x <= bucket[0]; x++) {
+				final int i = bucket[x];
+				final T u = items.get(i);
+				for (int y = 1; y < x; y++) {
+					final int j = bucket[y];
+					if (sets.find(i) == sets.find(j) || sets.size(i) + sets.size(j) > clusterMaxSize)
+						continue;
+					final T t = items.get(j);
+					if (match(u, t) || match(t, u)) {
+						sets.union(i, j);
+					}
+				}
+			}
 		}
-		
-		return result;
-	}
-	
-	
-	private boolean matchAny(T u, Set<T> clu) {
-		for(T t : clu) {
-			if(match(u, t) || match(t, u))
-				return true;
+
+		// collect the clusters
+		final Map<Integer, Set<T>> groups = new LinkedHashMap<Integer, Set<T>>();
+		for (int i = 0; i < n; i++) {
+			Integer root = sets.find(i);
+			Set<T> group = groups.get(root);
+			if (group == null) {
+				group = new HashSet<T>();
+				groups.put(root, group);
+			}
+			group.add(items.get(i));
 		}
-		return false;
+
+		return new HashSet<Set<T>>(groups.values());
 	}
-	
+
 }
@@ -11,7 +11,11 @@ import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Validation rules and errors utilities.
@@ -30,14 +34,19 @@ public class CoreUtils implements ValidatorUtils {
   private Locale locale;
   private MessageSource messageSource;
   private int maxErrors;
+  // resolved rule behaviors: profile ("" - default) -> rule name -> behavior
+  // (only the profiles defined in the messages, i.e., overriding some rule's behavior)
+  private final Map<String, Map<String, Behavior>> behaviors;
 
   public CoreUtils() {
     this.maxErrors = DEFAULT_MAX_ERRORS;
     this.locale = LocaleContextHolder.getLocale();
+    this.behaviors = new ConcurrentHashMap<>();
   }
 
   public void setMessageSource(MessageSource rulesMessageSource) {
     this.messageSource = rulesMessageSource;
+    reload();
   }
   public MessageSource getMessageSource() {
     return messageSource;
@@ -98,22 +107,63 @@ public class CoreUtils implements ValidatorUtils {
     return error;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * A rule's behavior is resolved from the messages once per profile
+   * and then cached (until {@link #reload()}).
+   * An unknown profile (that does not override the rule's behavior,
+   * e.g., a made-up name in a web request) is not cached; the default behavior is used.
+   */
   public Behavior getRuleBehavior(String ruleName, String profile) {
     if (messageSource == null) return Behavior.ERROR;
 
+    final Behavior defaultBehavior = behaviors
+      .computeIfAbsent("", k -> new ConcurrentHashMap<>())
+      .computeIfAbsent(ruleName, r -> resolveRuleBehavior(r, null, Behavior.ERROR));
+    if (profile == null || profile.isEmpty())
+      return defaultBehavior;
+
+    Map<String, Behavior> profileBehaviors = behaviors.get(profile);
+    if (profileBehaviors == null) {
+      final Behavior behavior = resolveRuleBehavior(ruleName, profile, null);
+      if (behavior == null)
+        return defaultBehavior; //not (yet) known profile
+      profileBehaviors = behaviors.computeIfAbsent(profile, k -> new ConcurrentHashMap<>());
+    }
+    return profileBehaviors.computeIfAbsent(ruleName, r -> {
+      Behavior behavior = resolveRuleBehavior(r, profile, null);
+      return (behavior != null) ? behavior : defaultBehavior;
+    });
+  }
+
+  // the profiles (other than the default one) whose rule behaviors are cached
+  Set<String> getCachedProfiles() {
+    Set<String> profiles = new HashSet<>(behaviors.keySet());
+    profiles.remove("");
+    return profiles;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * Clears the rule behaviors cache.
+   */
+  public void reload() {
+    behaviors.clear();
+  }
+
+  // the rule's behavior in the profile (or default, if profile is null), or the fallback value if not set
+  private Behavior resolveRuleBehavior(String ruleName, String profile, Behavior fallback) {
     //using the default locale for values below (those ain't info messages)
     final Locale defaultLocale = Locale.getDefault();
 
-    // get the default behavior value first
-    String value = messageSource.getMessage(ruleName + ".behavior", null,
-      "ERROR", defaultLocale);
-
-    // override from the profile
+    String key = ruleName + ".behavior";
     if (profile != null && !profile.isEmpty())
-      value = messageSource.getMessage(ruleName + ".behavior." + profile,
-        null, value,  defaultLocale);
+      key += "." + profile;
+    String value = messageSource.getMessage(key, null, null, defaultLocale);
 
-    return Behavior.valueOf(value.toUpperCase());
+    return (value != null) ? Behavior.valueOf(value.toUpperCase()) : fallback;
   }
 
   public String getRuleDescription(String ruleName) {
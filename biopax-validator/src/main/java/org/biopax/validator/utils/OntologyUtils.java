@@ -1,10 +1,11 @@
 package org.biopax.validator.utils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections15.collection.CompositeCollection;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.text.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.biopax.paxtools.model.BioPAXFactory;
@@ -43,6 +44,11 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
     private CompositeCollection<String> allSynonyms; //set in init()!
     private Properties ontologyConfig;
 
+    // valid terms/names by restriction(s), shared by the CV rules (the ontologies don't change after init)
+    private final Map<CvRestriction, Set<OntologyTermI>> termsCache = new ConcurrentHashMap<>();
+    private final Map<Set<CvRestriction>, Set<OntologyTermI>> validTermsCache = new ConcurrentHashMap<>();
+    private final Map<Set<CvRestriction>, Set<String>> validTermNamesCache = new ConcurrentHashMap<>();
+
     public void setOntologyConfig(Properties ontologyConfig) {
         this.ontologyConfig = ontologyConfig;
     }
@@ -64,11 +70,13 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
 	}
 
 	public Set<String> getValidTermNamesLowerCase(Collection<CvRestriction> restrictions) {
-		Set<String> names = new HashSet<>();
-		for(String name : getValidTermNames(restrictions)) {
-			names.add(name.toLowerCase());
-		}
-		return names;
+		return validTermNamesCache.computeIfAbsent(Set.copyOf(restrictions), k -> {
+			Set<String> names = new HashSet<>();
+			for(String name : getValidTermNames(k)) {
+				names.add(name.toLowerCase());
+			}
+			return Collections.unmodifiableSet(names);
+		});
 	}
 
 	public Set<String> getTermNames(CvRestriction restriction) {
@@ -76,26 +84,32 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
 	}
 	
 	public Set<OntologyTermI> getValidTerms(Collection<CvRestriction> restrictions) {
-		Set<OntologyTermI> terms = new HashSet<>();
-		
-		// first, collect all the valid terms
-		for(CvRestriction restriction : restrictions) {
-			if(!restriction.isNot()) {
-				terms.addAll(getTerms(restriction));
+		return validTermsCache.computeIfAbsent(Set.copyOf(restrictions), k -> {
+			Set<OntologyTermI> terms = new HashSet<>();
+
+			// first, collect all the valid terms
+			for(CvRestriction restriction : k) {
+				if(!restriction.isNot()) {
+					terms.addAll(getTerms(restriction));
+				}
 			}
-		}
-		
-		// now remove all those where restriction 'not' property set to true
-		for(CvRestriction restriction : restrictions) {
-			if(restriction.isNot()) {
-				terms.removeAll(getTerms(restriction));
+
+			// now remove all those where restriction 'not' property set to true
+			for(CvRestriction restriction : k) {
+				if(restriction.isNot()) {
+					terms.removeAll(getTerms(restriction));
+				}
 			}
-		}
-		
-		return terms;
+
+			return Collections.unmodifiableSet(terms);
+		});
 	}
 
 	public Set<OntologyTermI> getTerms(CvRestriction restriction) {
+		return termsCache.computeIfAbsent(restriction, this::findTerms);
+	}
+
+	private Set<OntologyTermI> findTerms(CvRestriction restriction) {
 		Set<OntologyTermI> terms = new HashSet<>();
 		OntologyAccess ontologyAccess = ontologyManager.getOntology(restriction.getOntologyId());
 		if(ontologyAccess == null) {
@@ -109,7 +123,7 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
 		if(term == null) {
 			log.error("Cannot Get " + restriction.getOntologyId()
 					+ " OntologyAccess Term for the Accession: " + restriction.getId());
-			return terms;
+			return Collections.emptySet();
 		}
 		
 		if(restriction.isTermAllowed()) {
@@ -121,18 +135,8 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
 		} else if (restriction.getChildrenAllowed() == UseChildTerms.DIRECT) {
 			terms.addAll(ontologyAccess.getDirectChildren(term));
 		}
-		
-		// FIX xml escape symbols that come from the OntologyManagerImpl (a bug?)
-		for(OntologyTermI t : terms) {
-			t.setPreferredName(StringEscapeUtils.unescapeXml(t.getPreferredName()));
-			Set<String> synonyms = new HashSet<>();
-			for(String s : t.getNameSynonyms()) {
-				synonyms.add(StringEscapeUtils.unescapeXml(s));
-			}
-			t.setNameSynonyms(synonyms);
-		}
-		
-		return terms;
+
+		return Collections.unmodifiableSet(terms);
 	}
 
   public <T extends ControlledVocabulary> T getControlledVocabulary(
@@ -209,19 +213,21 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
    */
   @PostConstruct //vital
   public synchronized void init() {
+    //create new ontology manager and start loading OBO files (concurrently) as specified in the properties;
+    //only MI is required to build the db synonyms below, and the other ontologies continue loading meanwhile.
+    final Map<String, CompletableFuture<OntologyAccess>> loading;
+    final OntologyAccess mi;
     try {
-      //create new ontology manager and load OBO files as specified in the properties.
+      termsCache.clear();
+      validTermsCache.clear();
+      validTermNamesCache.clear();
       ontologyManager = new OntologyManagerImpl();
-      ontologyManager.loadOntologies(ontologyConfig);
-      //Normalize ontology names
-      for (String id : ontologyManager.getOntologyIDs()) {
-        Namespace ns = Resolver.getNamespace(id, true);
-        String officialName = id;
-        if(ns != null) {
-          officialName = ns.getName();
-        }
-        ontologyManager.getOntology(id).setName(officialName);
-        log.debug(id + " (" + officialName + ")");
+      loading = ontologyManager.loadOntologiesAsync(ontologyConfig);
+      CompletableFuture<OntologyAccess> miLoading = loading.get("MI");
+      mi = (miLoading != null) ? miLoading.exceptionally(e -> null).join() : null;
+      if (mi == null) {
+        OntologyManagerImpl.await(loading); //reports all the failures
+        throw new IllegalStateException("MI ontology is not configured");
       }
     } catch (Throwable e) {
       throw new RuntimeException("Failed to load ontologies", e);
@@ -252,7 +258,6 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
     }
 
     // load all names from MI 'database citation'
-    OntologyAccess mi = ontologyManager.getOntology("MI");
     Collection<OntologyTermI> terms = mi.getAllChildren(new OntologyTermImpl("MI:0444"));
     for (OntologyTermI term : terms) {
       List<String> synonyms = new ArrayList<>();
@@ -271,6 +276,11 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
       public boolean match(Collection<String> a, Collection<String> b) {
         return !Collections.disjoint(a, b);
       }
+
+      @Override
+      protected Collection<?> keys(Collection<String> names) {
+        return names;
+      }
     };
 
     // find all overlapping groups of names (can be single-group "clusters" as well)
@@ -302,6 +312,22 @@ public class OntologyUtils implements CvUtils, CvFactory, XrefUtils
         this.allSynonyms.addComposited(groupsToMerge.iterator().next());
       }
     }
+
+    try {
+      OntologyManagerImpl.await(loading);
+      //Normalize ontology names
+      for (String id : ontologyManager.getOntologyIDs()) {
+        Namespace ns = Resolver.getNamespace(id, true);
+        String officialName = id;
+        if(ns != null) {
+          officialName = ns.getName();
+        }
+        ontologyManager.getOntology(id).setName(officialName);
+        log.debug(id + " (" + officialName + ")");
+      }
+    } catch (Throwable e) {
+      throw new RuntimeException("Failed to load ontologies", e);
+    }
   }
 
   @Override
@@ -0,0 +1,298 @@
+package org.biopax.validator.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Long-lived, shared scheduler that runs validation rules.
+ *
+ * One instance (bean) is used by all concurrent validations,
+ * so that no threads get created per validation request.
+ * Each validation submits its tasks via own {@link Batch},
+ * which tracks the completion and also limits the number of the batch's tasks
+ * queued in the shared pool at a time (fair share among concurrent validations).
+ */
+public class RuleExecutor {
+  private static final Logger log = LoggerFactory.getLogger(RuleExecutor.class);
+
+  public static final int DEFAULT_CHUNK_SIZE = 256;
+
+  private int threads;
+  private boolean virtualThreads;
+  private int chunkSize;
+  private volatile ExecutorService executor;
+
+  public RuleExecutor() {
+    this.threads = 0;
+    this.virtualThreads = false;
+    this.chunkSize = DEFAULT_CHUNK_SIZE;
+  }
+
+  /**
+   * Max. number of rule tasks that run concurrently
+   * (also - the pool size, unless virtual threads are used).
+   *
+   * @return no. threads; 0 or less means - the number of available processors
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * Whether to run the rules in virtual threads (when the JVM supports it; Java 21+).
+   *
+   * @return true/false
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  /**
+   * Max. number of objects (e.g., BioPAX elements) processed by one task
+   * when a collection is submitted with {@link Batch#forEach(Collection, Consumer)}.
+   *
+   * @return chunk size (positive)
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  public void setChunkSize(int chunkSize) {
+    this.chunkSize = (chunkSize > 0) ? chunkSize : DEFAULT_CHUNK_SIZE;
+  }
+
+  /**
+   * @return actual no. rule tasks to run in parallel
+   */
+  public int getParallelism() {
+    return (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Starts a new group of tasks, e.g., for one validation.
+   *
+   * @return new batch
+   */
+  public Batch newBatch() {
+    return new Batch(getExecutor(), getParallelism(), chunkSize);
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  private ExecutorService getExecutor() {
+    ExecutorService exec = executor;
+    if (exec == null) {
+      synchronized (this) {
+        if (executor == null) {
+          executor = createExecutor();
+        }
+        exec = executor;
+      }
+    }
+    return exec;
+  }
+
+  private ExecutorService createExecutor() {
+    if (virtualThreads) {
+      try {
+        ExecutorService exec = (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        log.info("Using virtual threads to run validation rules; parallelism: " + getParallelism());
+        return exec;
+      } catch (ReflectiveOperationException e) {
+        log.warn("Virtual threads are not supported by this JVM; using a fixed thread pool.");
+      }
+    }
+
+    final int n = getParallelism();
+    log.info("Using a fixed thread pool of " + n + " threads to run validation rules");
+    return Executors.newFixedThreadPool(n, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "rule-executor-" + count.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      }
+    });
+  }
+
+  /**
+   * A group of tasks (e.g., of the same validation),
+   * which can be waited for to complete.
+   * Tasks go to the shared pool no more than
+   * the {@link #getParallelism()} at a time; others wait in the batch's own queue.
+   * A batch can be cancelled (see {@link #cancel()}).
+   */
+  public static final class Batch {
+    private final ExecutorService executor;
+    private final int maxRunning;
+    private final int chunkSize;
+    private final Queue<Runnable> backlog;
+    private final AtomicInteger running;
+    private final AtomicInteger pending;
+    private volatile boolean cancelled;
+
+    private Batch(ExecutorService executor, int maxRunning, int chunkSize) {
+      this.executor = executor;
+      this.maxRunning = maxRunning;
+      this.chunkSize = chunkSize;
+      this.backlog = new ConcurrentLinkedQueue<>();
+      this.running = new AtomicInteger();
+      this.pending = new AtomicInteger();
+    }
+
+    /**
+     * Adds a task to this batch.
+     *
+     * @param task to run
+     */
+    public void submit(Runnable task) {
+      if (cancelled) {
+        return;
+      }
+      pending.incrementAndGet();
+      backlog.add(task);
+      dispatch();
+    }
+
+    /**
+     * Applies the action to every item of the collection, in chunks.
+     *
+     * The collection is not copied; it is split lazily (see {@link Spliterator#trySplit()}),
+     * by the tasks themselves: a task that got a too large part
+     * submits a half of it as another task and continues with the rest,
+     * until the part is not larger than the chunk size,
+     * so that there are not too many tiny tasks, and idle workers still get work.
+     * The collection must not be modified until the tasks are done (see {@link #await()}).
+     *
+     * @param items  collection to process
+     * @param action what to do with each item (it must be thread-safe)
+     * @param <T>    item type
+     */
+    public <T> void forEach(Collection<T> items, Consumer<? super T> action) {
+      submitChunk(items.spliterator(), action);
+    }
+
+    private <T> void submitChunk(final Spliterator<T> part, final Consumer<? super T> action) {
+      submit(() -> {
+        Spliterator<T> rest = part;
+        while (!cancelled && rest.estimateSize() > chunkSize) {
+          Spliterator<T> prefix = rest.trySplit();
+          if (prefix == null) {
+            break;
+          }
+          submitChunk(prefix, action);
+        }
+        while (!cancelled && rest.tryAdvance(action)) {
+          //next item
+        }
+      });
+    }
+
+    /**
+     * Waits until all the tasks submitted so far are done.
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+      synchronized (this) {
+        while (pending.get() > 0) {
+          wait();
+        }
+      }
+    }
+
+    /**
+     * Cancels the tasks that have not started yet, and makes the running ones
+     * submitted with {@link #forEach(Collection, Consumer)} stop after the current item
+     * (other running tasks complete normally); new tasks are ignored.
+     */
+    public void cancel() {
+      cancelled = true;
+      while (backlog.poll() != null) {
+        done();
+      }
+    }
+
+    /**
+     * @return true if {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    /**
+     * @return the number of submitted tasks not done yet
+     */
+    public int getPending() {
+      return pending.get();
+    }
+
+    // moves some tasks from the backlog to the shared pool (within the limit)
+    private void dispatch() {
+      while (!backlog.isEmpty()) {
+        int n = running.get();
+        if (n >= maxRunning) {
+          return;
+        }
+        if (!running.compareAndSet(n, n + 1)) {
+          continue;
+        }
+        final Runnable task = backlog.poll();
+        if (task == null) {
+          running.decrementAndGet();
+          continue;
+        }
+        executor.execute(() -> run(task));
+      }
+    }
+
+    private void run(Runnable task) {
+      try {
+        if (!cancelled) {
+          task.run();
+        }
+      } catch (Throwable t) {
+        log.error("Rule task failed: " + t, t);
+      } finally {
+        running.decrementAndGet();
+        done();
+        dispatch();
+      }
+    }
+
+    private void done() {
+      if (pending.decrementAndGet() == 0) {
+        synchronized (this) {
+          notifyAll();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package org.biopax.validator.utils;
+
+/**
+ * Disjoint sets (union-find) over the element ordinals 0..n-1,
+ * with union by size and path halving.
+ */
+public final class UnionFind {
+
+	private final int[] parent;
+	private final int[] size;
+
+	/**
+	 * @param n number of elements (each is in its own set initially)
+	 */
+	public UnionFind(int n) {
+		parent = new int[n];
+		size = new int[n];
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+			size[i] = 1;
+		}
+	}
+
+	/**
+	 * @param i element ordinal
+	 * @return the set's representative (root) ordinal
+	 */
+	public int find(int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	/**
+	 * @param i element ordinal
+	 * @return size of the set that contains the element
+	 */
+	public int size(int i) {
+		return size[find(i)];
+	}
+
+	/**
+	 * Merges the sets that contain the two elements.
+	 *
+	 * @param i element ordinal
+	 * @param j another element ordinal
+	 * @return the new root, or -1 if they were in the same set already
+	 */
+	public int union(int i, int j) {
+		int ri = find(i);
+		int rj = find(j);
+		if (ri == rj)
+			return -1;
+		if (size[ri] < size[rj]) {
+			int r = ri; ri = rj; rj = r;
+		}
+		parent[rj] = ri;
+		size[ri] += size[rj];
+		return ri;
+	}
+}
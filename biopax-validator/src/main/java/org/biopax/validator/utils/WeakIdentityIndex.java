@@ -0,0 +1,127 @@
+package org.biopax.validator.utils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread-safe index: object to the set of values (e.g., validations)
+ * associated with it.
+ *
+ * Keys are matched by identity (not equals), and both keys and values
+ * are weakly referenced, i.e., the index does not prevent objects, such as
+ * parsers, models, and finished validations from being garbage collected
+ * (the corresponding entries disappear).
+ * Values must not override equals/hashCode.
+ *
+ * @param <V> value type
+ */
+public class WeakIdentityIndex<V> {
+
+  private final ConcurrentMap<Key, Set<V>> index;
+  private final ReferenceQueue<Object> queue;
+
+  public WeakIdentityIndex() {
+    index = new ConcurrentHashMap<>();
+    queue = new ReferenceQueue<>();
+  }
+
+  /**
+   * Associates the value with the object.
+   *
+   * @param obj   key object
+   * @param value value
+   */
+  public void add(Object obj, V value) {
+    expunge();
+    Set<V> values = index.computeIfAbsent(new Key(obj, queue), k -> newValues());
+    values.add(value);
+  }
+
+  /**
+   * Associates the objects with the same values as the owner object,
+   * including those associated with the owner later on
+   * (e.g., model elements - with the model's validations).
+   *
+   * @param owner key object, whose values are shared
+   * @param objs  key objects
+   */
+  public void link(Object owner, Collection<?> objs) {
+    expunge();
+    Set<V> values = index.computeIfAbsent(new Key(owner, queue), k -> newValues());
+    for (Object obj : objs) {
+      if (obj != owner) {
+        index.put(new Key(obj, queue), values);
+      }
+    }
+  }
+
+  /**
+   * Gets the values associated with the object.
+   *
+   * @param obj key object
+   * @return values (a copy; empty if none)
+   */
+  public Collection<V> get(Object obj) {
+    Set<V> values = index.get(new Key(obj, null));
+    if (values == null) {
+      return Collections.emptyList();
+    }
+    synchronized (values) {
+      return new ArrayList<>(values);
+    }
+  }
+
+  /**
+   * @return the number of (not yet expunged) key objects
+   */
+  public int size() {
+    expunge();
+    return index.size();
+  }
+
+  private Set<V> newValues() {
+    return Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+  }
+
+  // removes the entries for the objects that were garbage collected
+  private void expunge() {
+    Reference<?> ref;
+    while ((ref = queue.poll()) != null) {
+      index.remove(ref);
+    }
+  }
+
+  private static final class Key extends WeakReference<Object> {
+    private final int hash;
+
+    Key(Object obj, ReferenceQueue<Object> queue) {
+      super(obj, queue);
+      hash = System.identityHashCode(obj);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Object referent = get();
+      return referent != null && referent == ((Key) o).get();
+    }
+  }
+}
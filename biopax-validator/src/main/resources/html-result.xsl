@@ -68,6 +68,33 @@
 			<xsl:apply-templates select="error"/>
 		</ul>
 
+		<xsl:if test="statistics">
+			<ul>
+				<li><a href="#" class="hider" hide-id="{generate-id()}stats">Rules statistics</a>&#xa0;
+					(slowest first; time in microseconds; median and 95th percentile are approximate)</li>
+				<li id="{generate-id()}stats" class="hidden">
+					<table>
+						<tr><th>rule</th><th>invocations</th><th>checked</th><th>errors</th>
+							<th>total</th><th>median</th><th>95%</th><th>max</th></tr>
+						<xsl:apply-templates select="statistics"/>
+					</table>
+				</li>
+			</ul>
+		</xsl:if>
+
+	</xsl:template>
+
+	<xsl:template match="statistics">
+		<tr>
+			<td><xsl:value-of select="@rule"/></td>
+			<td><xsl:value-of select="@invocations"/></td>
+			<td><xsl:value-of select="@hits"/></td>
+			<td><xsl:value-of select="@errors"/></td>
+			<td><xsl:value-of select="round(@totalTime div 1000)"/></td>
+			<td><xsl:value-of select="round(@medianTime div 1000)"/></td>
+			<td><xsl:value-of select="round(@p95Time div 1000)"/></td>
+			<td><xsl:value-of select="round(@maxTime div 1000)"/></td>
+		</tr>
 	</xsl:template>
 
 	<xsl:template match="error">
@@ -0,0 +1,52 @@
+package org.biopax.validator;
+
+import java.util.Collections;
+
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Protein;
+import org.biopax.validator.api.beans.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BiopaxValidatorTest {
+
+	@Test
+	public final void testFindValidation() {
+		BiopaxValidator validator = new BiopaxValidator();
+		Model m1 = BioPAXLevel.L3.getDefaultFactory().createModel();
+		Protein p1 = m1.addNew(Protein.class, "protein1");
+		Model m2 = BioPAXLevel.L3.getDefaultFactory().createModel();
+		Protein p2 = m2.addNew(Protein.class, "protein1"); // same URI, another object
+		Object reader = new Object();
+
+		Validation v1 = new Validation(new BiopaxIdentifier());
+		Validation v2 = new Validation(new BiopaxIdentifier());
+		validator.associate(reader, v1);
+		validator.associate(m1, v1);
+		validator.associate(m2, v2);
+		Assertions.assertEquals(2, validator.getResults().size());
+
+		// models, their elements (by identity), and other objects
+		Assertions.assertEquals(Collections.singleton(v1), validator.findValidation(m1));
+		Assertions.assertEquals(Collections.singleton(v1), validator.findValidation(p1));
+		Assertions.assertEquals(Collections.singleton(v1), validator.findValidation(reader));
+		Assertions.assertEquals(Collections.singleton(v2), validator.findValidation(p2));
+		Assertions.assertTrue(validator.findValidation(new Object()).isEmpty());
+		Assertions.assertTrue(validator.findValidation("protein1").isEmpty());
+
+		// the same model in two validations
+		validator.associate(m1, v2);
+		Assertions.assertEquals(2, validator.findValidation(p1).size());
+
+		// child objects are found via the parent
+		Object child = new Object();
+		validator.indirectlyAssociate(p2, child);
+		Assertions.assertEquals(Collections.singleton(v2), validator.findValidation(child));
+
+		// removed from the registry
+		validator.getResults().remove(v2);
+		Assertions.assertEquals(Collections.singleton(v1), validator.findValidation(p1));
+		Assertions.assertTrue(validator.findValidation(p2).isEmpty());
+	}
+}
@@ -450,6 +450,63 @@ public class RulesTest {
     writeExample("testClonedUtilityClassRuleFixed.owl", model);
   }
 
+  @Test
+  public final void testClonedUtilityClassRuleOtherTypes() {
+    Model model = BioPAXLevel.L3.getDefaultFactory().createModel();
+    UnificationXref x = model.addNew(UnificationXref.class, "GO_0005737");
+    x.setDb("GO");
+    x.setId("GO:0005737");
+    // clones (the same unification xref)
+    for (String uri : new String[] {"cv1", "cv2"}) {
+      CellularLocationVocabulary cv = model.addNew(CellularLocationVocabulary.class, uri);
+      cv.addTerm("cytoplasm");
+      cv.addXref(x);
+    }
+    // not a clone (another type)
+    model.addNew(TissueVocabulary.class, "cv3").addXref(x);
+    // clones (same position)
+    model.addNew(SequenceSite.class, "site1").setSequencePosition(10);
+    model.addNew(SequenceSite.class, "site2").setSequencePosition(10);
+    model.addNew(SequenceSite.class, "site3").setSequencePosition(11);
+    // never equivalent
+    model.addNew(Provenance.class, "pro1");
+    model.addNew(Provenance.class, "pro2");
+
+    Validation v = new Validation(new BiopaxIdentifier());
+    new ClonedUtilityClassRule().check(v, model);
+    Assertions.assertEquals(2, v.countErrors(null, null, "cloned.utility.class", null, false, false));
+  }
+
+
+  @Test
+  public void testSameNameDiffKindPhysEntitiesRule() {
+    Model m = level3.createModel();
+    ProteinReference pr1 = m.addNew(ProteinReference.class, "pr1");
+    ProteinReference pr2 = m.addNew(ProteinReference.class, "pr2");
+    Protein p1 = m.addNew(Protein.class, "p1");
+    p1.setEntityReference(pr1);
+    p1.addName("X");
+    Protein p2 = m.addNew(Protein.class, "p2");
+    p2.setEntityReference(pr2);
+    p2.addName("X");
+    p2.addName("Y");
+    Protein p3 = m.addNew(Protein.class, "p3"); // no entity reference
+    p3.addName("Y");
+    // same entity reference, same name - ok
+    Protein p4 = m.addNew(Protein.class, "p4");
+    p4.setEntityReference(pr1);
+    p4.addName("Z");
+    Protein p5 = m.addNew(Protein.class, "p5");
+    p5.setEntityReference(pr1);
+    p5.addName("Z");
+
+    Rule<Model> rule = new SameNameDiffKindPhysEntitiesRule();
+    Validation v = new Validation(new BiopaxIdentifier());
+    rule.check(v, m);
+    Assertions.assertEquals(1, v.countErrors(null, null, "diff.kind.same.name", null, false, false));
+    Assertions.assertEquals(0, v.countErrors("p4", null, "diff.kind.same.name", null, false, false)
+      + v.countErrors("p5", null, "diff.kind.same.name", null, false, false));
+  }
 
   @Test
   public void testDuplicateIdCaseInsensitiveRule() {
@@ -460,6 +517,15 @@ public class RulesTest {
     Validation v = new Validation(new BiopaxIdentifier());
     rule.check(v, m);
     Assertions.assertEquals(1, v.countErrors(null, null, "duplicate.id.ignoringcase", null, false, false));
+
+    // one error per group of duplicates
+    m.addNew(PublicationXref.class, "SOME_id");
+    m.addNew(UnificationXref.class, "other");
+    m.addNew(UnificationXref.class, "Other");
+    m.addNew(UnificationXref.class, "unique");
+    v = new Validation(new BiopaxIdentifier());
+    rule.check(v, m);
+    Assertions.assertEquals(2, v.countErrors(null, null, "duplicate.id.ignoringcase", null, false, false));
   }
 
 
@@ -629,6 +695,21 @@ public class RulesTest {
     rule.check(v, m);
     Assertions.assertEquals(1, v.countErrors(ef1.getUri(), null, "inverse.functional.violated", null, false, false));
     Assertions.assertEquals(0, v.countErrors(ef1.getUri(), null, "inverse.functional.violated", null, false, true));
+    Assertions.assertFalse(pr1.getEntityFeature().contains(ef1));
+    Assertions.assertEquals(1, pr1.getEntityFeature().size());
+    Assertions.assertFalse(p1.getNotFeature().contains(ef1));
+    Assertions.assertTrue(p1.getNotFeature().containsAll(pr1.getEntityFeature()));
+    Assertions.assertTrue(pr2.getEntityFeature().contains(ef1) && p2.getFeature().contains(ef1));
+    Assertions.assertEquals(pr2, ef1.getEntityFeatureOf());
     writeExample("testEntityFeatureInverseFunctionalRuleFixed.owl", m);
   }
+
+  @Test
+  public void testRuleDomain() {
+    Assertions.assertEquals(Xref.class, new XrefRule().getDomain());
+    Assertions.assertEquals(Named.class, new DisplayNameRule().getDomain());
+    Assertions.assertEquals(Model.class, new ClonedUtilityClassRule().getDomain());
+    Assertions.assertEquals(RelationshipXref.class, new XrefIdCRRule().getDomain());
+    Assertions.assertEquals(CellularLocationVocabulary.class, new CellularLocationCvRule().getDomain());
+  }
 }
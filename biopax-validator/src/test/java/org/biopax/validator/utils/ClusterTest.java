@@ -0,0 +1,66 @@
+package org.biopax.validator.utils;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ClusterTest {
+
+	// groups of overlapping name lists (as in OntologyUtils)
+	private final Cluster<List<String>> overlapping = new Cluster<>() {
+		@Override
+		public boolean match(List<String> a, List<String> b) {
+			return !Collections.disjoint(a, b);
+		}
+
+		@Override
+		protected Collection<?> keys(List<String> names) {
+			return names;
+		}
+	};
+
+	@Test
+	public final void testClusterByKeys() {
+		List<List<String>> groups = Arrays.asList(
+			Arrays.asList("A", "B"),
+			Arrays.asList("C"),
+			Arrays.asList("B", "D"),
+			Arrays.asList("D", "E", "D"),
+			Arrays.asList("F", "C"),
+			Collections.emptyList());
+
+		Set<Set<List<String>>> clusters = overlapping.cluster(groups, Integer.MAX_VALUE);
+
+		Assertions.assertEquals(3, clusters.size());
+		Assertions.assertTrue(clusters.contains(new HashSet<>(Arrays.asList(
+			groups.get(0), groups.get(2), groups.get(3)))));
+		Assertions.assertTrue(clusters.contains(new HashSet<>(Arrays.asList(groups.get(1), groups.get(4)))));
+		Assertions.assertTrue(clusters.contains(Collections.singleton(groups.get(5))));
+	}
+
+	@Test
+	public final void testDefaultKeyAndMaxSize() {
+		// all pairs compared (no keys); numbers of the same parity match
+		Cluster<Integer> parity = new Cluster<>() {
+			@Override
+			public boolean match(Integer a, Integer b) {
+				return a % 2 == b % 2;
+			}
+		};
+		List<Integer> numbers = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			numbers.add(i);
+		}
+
+		Set<Set<Integer>> clusters = parity.cluster(numbers, Integer.MAX_VALUE);
+		Assertions.assertEquals(2, clusters.size());
+		Assertions.assertTrue(clusters.contains(new HashSet<>(Arrays.asList(0, 2, 4, 6, 8))));
+
+		clusters = parity.cluster(numbers, 2);
+		Assertions.assertEquals(6, clusters.size()); // 2+2+1 of each parity
+		for (Set<Integer> c : clusters) {
+			Assertions.assertTrue(c.size() <= 2);
+		}
+	}
+}
@@ -1,6 +1,15 @@
 package org.biopax.validator.utils;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 
 import javax.xml.transform.stream.StreamSource;
 
@@ -8,11 +17,13 @@ import org.biopax.validator.api.ValidatorUtils;
 import org.biopax.validator.api.beans.Behavior;
 import org.biopax.validator.api.beans.ErrorCaseType;
 import org.biopax.validator.api.beans.ErrorType;
+import org.biopax.validator.api.beans.RuleStats;
 import org.biopax.validator.api.beans.Validation;
 import org.biopax.validator.api.beans.ValidatorResponse;
 import org.biopax.validator.BiopaxIdentifier;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
 
 public class CoreUtilsTest {
 
@@ -124,4 +135,155 @@ public class CoreUtilsTest {
 		
 		Assertions.assertEquals(xmlresp1, xmlresp2);
 	}
+
+	@Test
+	public final void testGetRuleBehavior() {
+		ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+		messageSource.setBasenames("rules", "codes", "profiles");
+		CoreUtils utils = new CoreUtils();
+		utils.setMessageSource(messageSource);
+		utils.setLocale(Locale.ENGLISH);
+
+		String rule = "org.biopax.validator.rules.BindingFeatureBindsToCRRule";
+		Assertions.assertEquals(Behavior.ERROR, utils.getRuleBehavior(rule, null));
+		Assertions.assertEquals(Behavior.IGNORE, utils.getRuleBehavior(rule, "notstrict"));
+		// cached values are the same
+		Assertions.assertEquals(Behavior.IGNORE, utils.getRuleBehavior(rule, "notstrict"));
+		Assertions.assertEquals(Behavior.WARNING,
+			utils.getRuleBehavior("org.biopax.validator.rules.DisplayNameRule", ""));
+		// unknown profiles get the default behavior, and are not cached
+		Assertions.assertEquals(Behavior.ERROR, utils.getRuleBehavior(rule, "made-up"));
+		Assertions.assertEquals(Behavior.WARNING,
+			utils.getRuleBehavior("org.biopax.validator.rules.DisplayNameRule", "made-up-too"));
+		// a rule not overridden in the known profile gets the default behavior
+		Assertions.assertEquals(Behavior.WARNING,
+			utils.getRuleBehavior("org.biopax.validator.rules.DisplayNameRule", "notstrict"));
+		Assertions.assertEquals(Collections.singleton("notstrict"), utils.getCachedProfiles());
+
+		utils.reload();
+		Assertions.assertEquals(Behavior.IGNORE, utils.getRuleBehavior(rule, "notstrict"));
+		Assertions.assertEquals(Behavior.ERROR, utils.getRuleBehavior("org.biopax.validator.rules.NoSuchRule", null));
+	}
+
+	@Test
+	public final void testAddErrorConcurrently() {
+		Validation validation = new Validation(new BiopaxIdentifier());
+		IntStream.range(0, 10000).parallel().forEach(i -> {
+			ErrorType e = new ErrorType("code" + (i % 10), (i % 2 == 0) ? Behavior.ERROR : Behavior.WARNING);
+			ErrorCaseType c = new ErrorCaseType("rule" + (i % 3), "obj" + (i % 1000), "msg");
+			c.setFixed(i % 5 == 0);
+			e.addErrorCase(c);
+			validation.addError(e);
+		});
+		// 10 codes (even - errors, odd - warnings) x 100 objects x 3 rules
+		Assertions.assertEquals(10, validation.getError().size());
+		Assertions.assertEquals(3000, validation.getTotalProblemsFound());
+		Assertions.assertEquals(3000, validation.countErrors(null, null, null, null, false, false));
+		// every 'code0' and 'code5' case (i%5==0) is fixed
+		Assertions.assertEquals(2400, validation.getNotFixedProblems());
+		Assertions.assertEquals(1200, validation.getNotFixedErrors());
+		Assertions.assertEquals(300, validation.countErrors(null, null, "code1", null, false, true));
+		Assertions.assertEquals(100, validation.countErrors(null, "rule0", "code1", null, false, true));
+
+		validation.setFixed("obj1", "rule1", "code1", "fixed!");
+		Assertions.assertEquals(2399, validation.getNotFixedProblems());
+		Assertions.assertEquals(1200, validation.getNotFixedErrors());
+	}
+
+	@Test
+	public final void testMaxErrorsConcurrently() throws Exception {
+		final int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			for (int round = 0; round < 20; round++) {
+				// fail-fast mode; the threads try to add an error at the same time
+				final Validation validation = new Validation(new BiopaxIdentifier(), "test", false, Behavior.WARNING, 1, null);
+				final CyclicBarrier start = new CyclicBarrier(threads);
+				List<Future<?>> tasks = new ArrayList<>();
+				for (int t = 0; t < threads; t++) {
+					final String obj = "obj" + t;
+					tasks.add(pool.submit(() -> {
+						ErrorType e = new ErrorType("code", Behavior.ERROR) {
+							@Override
+							public int getTotalCases() {
+								// widen the race window (between the max. errors check and adding)
+								try {
+									Thread.sleep(1);
+								} catch (InterruptedException ex) {
+									Thread.currentThread().interrupt();
+								}
+								return super.getTotalCases();
+							}
+						};
+						e.addErrorCase(new ErrorCaseType("rule", obj, "msg"));
+						start.await();
+						validation.addError(e);
+						return null;
+					}));
+				}
+				for (Future<?> task : tasks)
+					task.get();
+				Assertions.assertEquals(1, validation.getNotFixedErrors());
+				Assertions.assertEquals(1, validation.countErrors(null, null, null, null, true, true));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public final void testErrorCaseEqualsIgnoringCaseInAnyLocale() {
+		Locale defaultLocale = Locale.getDefault();
+		try {
+			Locale.setDefault(new Locale("tr", "TR")); // "I".toLowerCase() is "\u0131" there
+			ErrorCaseType a = new ErrorCaseType("RULE", "OBJ_I", "msg");
+			ErrorCaseType b = new ErrorCaseType("rule", "obj_i", "msg");
+			Assertions.assertEquals(a, b);
+			Assertions.assertEquals(a.hashCode(), b.hashCode());
+
+			ErrorType e = new ErrorType("foo.bar", Behavior.ERROR);
+			e.addErrorCase(a);
+			e.addErrorCase(b);
+			Assertions.assertEquals(1, e.getErrorCase().size());
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	public final void testRuleStatistics() throws Exception {
+		Validation validation = new Validation(new BiopaxIdentifier(), "test", false, Behavior.WARNING, 0, null);
+		validation.setCollectStatistics(true);
+		RuleStats rs = validation.getRuleStats("junit-test");
+		rs.record(false, 0);
+		for (int i = 1; i <= 100; i++) {
+			rs.record(true, i * 1000L);
+		}
+		ErrorType e = new ErrorType("foo.bar", Behavior.ERROR);
+		e.addErrorCase(new ErrorCaseType("junit-test", "Test", "test error message"));
+		e.addErrorCase(new ErrorCaseType("junit-test", "Test2", "test error message"));
+		validation.addError(e);
+		validation.addError(e); // same cases - not counted again
+
+		Assertions.assertEquals(101, rs.getInvocations());
+		Assertions.assertEquals(100, rs.getHits());
+		Assertions.assertEquals(2, rs.getErrors());
+		Assertions.assertEquals(5050000, rs.getTotalTime());
+		Assertions.assertEquals(100000, rs.getMaxTime());
+		// power-of-two buckets: the estimate is within a factor of two
+		Assertions.assertTrue(rs.getMedianTime() >= 50000 && rs.getMedianTime() < 100000);
+		Assertions.assertTrue(rs.getP95Time() >= 95000 && rs.getP95Time() <= 100000);
+
+		ValidatorResponse response = new ValidatorResponse();
+		response.addValidationResult(validation);
+		Writer writer = new StringWriter();
+		ValidatorUtils.write(response, writer, null);
+		ValidatorResponse resp = (ValidatorResponse) ValidatorUtils.getUnmarshaller()
+			.unmarshal(new StreamSource(new StringReader(writer.toString())));
+		RuleStats rs2 = resp.getValidationResult().get(0).getStatistics().iterator().next();
+		Assertions.assertEquals("junit-test", rs2.getRule());
+		Assertions.assertEquals(101, rs2.getInvocations());
+		Assertions.assertEquals(rs.getMedianTime(), rs2.getMedianTime());
+		Assertions.assertEquals(rs.getP95Time(), rs2.getP95Time());
+	}
 }
@@ -2,11 +2,14 @@ package org.biopax.validator.utils;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.validator.CvFactory;
 import org.biopax.validator.XrefUtils;
+import org.biopax.validator.api.CvRestriction;
+import org.biopax.validator.api.CvRestriction.UseChildTerms;
 import org.biopax.validator.api.CvUtils;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -123,4 +126,17 @@ public class OntologyUtilsTest {
     );
   }
 
+  @Test
+  public void validTermsCache() {
+    CvRestriction restriction = new CvRestriction("GO:0005575", "GO", false, UseChildTerms.ALL, false);
+    CvRestriction same = new CvRestriction("GO:0005575", "GO", false, UseChildTerms.ALL, false);
+    Set<String> names = cvUtils.getValidTermNamesLowerCase(Set.of(restriction));
+    assertAll(
+        () -> assertFalse(names.isEmpty()),
+        () -> assertSame(names, cvUtils.getValidTermNamesLowerCase(List.of(same))),
+        () -> assertSame(cvUtils.getTerms(restriction), cvUtils.getTerms(same)),
+        () -> assertThrows(UnsupportedOperationException.class, () -> names.add("foo"))
+    );
+  }
+
 }
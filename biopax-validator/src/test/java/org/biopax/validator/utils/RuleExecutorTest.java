@@ -0,0 +1,61 @@
+package org.biopax.validator.utils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class RuleExecutorTest {
+
+	private static RuleExecutor executor;
+
+	@BeforeAll
+	public static void init() {
+		executor = new RuleExecutor();
+		executor.setThreads(4);
+		executor.setChunkSize(100);
+	}
+
+	@AfterAll
+	public static void shutdown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public final void testForEach() throws InterruptedException {
+		Set<Integer> items = new HashSet<>();
+		for (int i = 0; i < 100000; i++) {
+			items.add(i);
+		}
+		final AtomicInteger count = new AtomicInteger();
+		RuleExecutor.Batch batch = executor.newBatch();
+		batch.forEach(items, i -> count.incrementAndGet());
+		batch.await();
+		Assertions.assertEquals(100000, count.get());
+		Assertions.assertEquals(0, batch.getPending());
+	}
+
+	@Test
+	public final void testCancel() throws InterruptedException {
+		Set<Integer> items = new HashSet<>();
+		for (int i = 0; i < 100000; i++) {
+			items.add(i);
+		}
+		final AtomicInteger count = new AtomicInteger();
+		final RuleExecutor.Batch batch = executor.newBatch();
+		batch.forEach(items, i -> {
+			if (count.incrementAndGet() >= 10) {
+				batch.cancel();
+			}
+		});
+		batch.await();
+		Assertions.assertTrue(batch.isCancelled());
+		Assertions.assertEquals(0, batch.getPending());
+		// each running task stops after the current item
+		Assertions.assertTrue(count.get() < 10 + executor.getParallelism());
+	}
+}
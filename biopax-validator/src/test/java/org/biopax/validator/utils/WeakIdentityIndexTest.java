@@ -0,0 +1,83 @@
+package org.biopax.validator.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class WeakIdentityIndexTest {
+
+	// values must not override equals/hashCode
+	private static final class Value {
+	}
+
+	@Test
+	public final void testIdentityKeys() {
+		WeakIdentityIndex<Value> index = new WeakIdentityIndex<>();
+		Value v1 = new Value();
+		Value v2 = new Value();
+		String a = new String("key");
+		String b = new String("key"); // equal, but not the same object
+		index.add(a, v1);
+		index.add(a, v2);
+		index.add(a, v1);
+
+		Assertions.assertEquals(2, index.get(a).size());
+		Assertions.assertTrue(index.get(a).containsAll(Arrays.asList(v1, v2)));
+		Assertions.assertTrue(index.get(b).isEmpty());
+		Assertions.assertEquals(1, index.size());
+	}
+
+	@Test
+	public final void testLink() {
+		WeakIdentityIndex<Value> index = new WeakIdentityIndex<>();
+		Object owner = new Object();
+		Object member = new Object();
+		Value v1 = new Value();
+		Value v2 = new Value();
+		index.add(owner, v1);
+		index.link(owner, Arrays.asList(owner, member));
+		Assertions.assertEquals(Collections.singletonList(v1), index.get(member));
+
+		// values associated with the owner later are shared too
+		index.add(owner, v2);
+		Assertions.assertEquals(2, index.get(member).size());
+		Assertions.assertEquals(2, index.get(owner).size());
+		Assertions.assertEquals(2, index.size());
+	}
+
+	@Test
+	public final void testGarbageCollected() throws InterruptedException {
+		WeakIdentityIndex<Value> index = new WeakIdentityIndex<>();
+		Object key = new Object();
+		Value value = new Value();
+		index.add(key, value);
+		List<Object> members = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			members.add(new Object());
+		}
+		index.link(key, members);
+		Assertions.assertEquals(11, index.size());
+
+		// the value is not referenced anymore
+		value = null;
+		for (int i = 0; i < 50 && !index.get(key).isEmpty(); i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assertions.assertTrue(index.get(key).isEmpty());
+		Assertions.assertTrue(index.get(members.get(0)).isEmpty());
+
+		// neither are the keys (the entries are removed)
+		members = null;
+		key = null;
+		for (int i = 0; i < 50 && index.size() > 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assertions.assertEquals(0, index.size());
+	}
+}
@@ -40,6 +40,7 @@ public class Main {
   static String xmlBase = null;
   static String outFormat = "html";
   static String output = null;
+  static boolean stats = false;
 
   public static void main(String[] args) throws Exception {
 
@@ -68,6 +69,8 @@ public class Main {
         xmlBase = args[i].substring(10);
       } else if (args[i].startsWith("--output=")) {
         output = args[i].substring(9);
+      } else if ("--stats".equalsIgnoreCase(args[i])) {
+        stats = true;
       } else if (args[i].startsWith("--out-format=")) {
         outFormat = args[i].substring(13);
         if (outFormat.isEmpty())
@@ -93,7 +96,7 @@ public class Main {
     final String usage =
       "\nThe BioPAX Validator v3\n\n" +
         "Usage (arguments):\n <input> [--output=<filename>] [--out-format=xml|html] [--auto-fix] " +
-        "[--xmlBase=<base>] [--max-errors=<n>] [--profile=notstrict]\n\n" +
+        "[--xmlBase=<base>] [--max-errors=<n>] [--profile=notstrict] [--stats]\n\n" +
         "Given --output=<filename>, a one-file validation report will be \n" +
         "generated (HTML or XML) instead of default report file(s) in the \n" +
         "current directory. Optional arguments can go in any order.\n" +
@@ -108,7 +111,9 @@ public class Main {
         "for each input file in the current working directory \n" +
         "(adding '.modified.owl' exention). If the outFormat file extension \n" +
         "is '.html', the XML result will be auto-transformed to a stand-alone \n" +
-        "HTML/javascript page, which is very similar to what the online version returns.";
+        "HTML/javascript page, which is very similar to what the online version returns.\n" +
+        "If '--stats' option was used, the report also contains per-rule statistics \n" +
+        "(invocations, check time, errors).";
     System.out.println(usage);
     System.exit(-1);
   }
@@ -125,6 +130,7 @@ public class Main {
       Validation result = new Validation(new BiopaxIdentifier(), resource.getDescription(),
         autofix, null, maxErrors, profile);
       result.setDescription(resource.getDescription());
+      result.setCollectStatistics(stats);
       log.info("BioPAX DATA IMPORT FROM: " + result.getDescription());
       try {
         validator.importModel(result, resource.getInputStream());
@@ -76,6 +76,16 @@ public abstract class BaseOBO2AbstractLoader implements Loader {
         this.useGreedy = useGreedy;
     }
 
+    /**
+     * lean mode: only the term names, synonyms, obsolete flags and relationships are processed;
+     * root terms, paths, annotations, dbxrefs (incl. the PSI-MOD annotations) are skipped
+     */
+    protected boolean lean = false;
+
+    protected void setLean(boolean lean) {
+        this.lean = lean;
+    }
+
     /**
      * will return a collection of TermBean accesssion strings that correspond to the root term
      *
@@ -312,7 +322,7 @@ public abstract class BaseOBO2AbstractLoader implements Loader {
 
         //get rid of stale data and get root terms
         rootTerms.clear();
-        if (parser != null) {
+        if (parser != null && !lean) {
             rootTerms.addAll(getRootTerms());
         }
 
@@ -431,10 +441,12 @@ public abstract class BaseOBO2AbstractLoader implements Loader {
         trm.setParentOntology(ontBean);
         //process synonyms
         trm.setSynonyms(processSynonyms(obj, trm));
-        //process xrefs
-        trm.setXrefs(processXrefs(obj, trm));
-        //process annotations
-        trm.setAnnotations(processAnnotations(obj, trm));
+        if (!lean) {
+            //process xrefs
+            trm.setXrefs(processXrefs(obj, trm));
+            //process annotations
+            trm.setAnnotations(processAnnotations(obj, trm));
+        }
 
         //set number of children
         int nbChild = 0;
@@ -744,7 +756,9 @@ public abstract class BaseOBO2AbstractLoader implements Loader {
 
         TermBean trm = (TermBean) ontologyTerms.get(safeTrim(obj.getID()));
         trm.setRelationships(processRelationships(obj, trm));
-        trm.setPaths(processPaths(obj, trm));
+        if (!lean) {
+            trm.setPaths(processPaths(obj, trm));
+        }
 
         //update term object
         ontologyTerms.put(trm.getIdentifier(), trm);
@@ -1007,7 +1021,7 @@ public abstract class BaseOBO2AbstractLoader implements Loader {
                 }
 
                 Collection<Dbxref> oboSynXrefs = aSyn.getXrefs();
-                if (oboSynXrefs != null) {
+                if (oboSynXrefs != null && !lean) {
                     Collection<DbXref> xrefs = new HashSet<DbXref>();
                     for (Dbxref xref : oboSynXrefs) {
                         xrefs.add(createDbXref(xref, Dbxref.RELATED_SYNONYM));
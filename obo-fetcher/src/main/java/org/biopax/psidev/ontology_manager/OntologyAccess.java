@@ -31,6 +31,15 @@ public interface OntologyAccess {
      * @return an ontology term or null if not found.
      */
     public OntologyTermI getTermForAccession( String accession );
+
+    /**
+     * Search terms by name (case-insensitive),
+     * i.e., terms having the preferred name or a synonym equal to the name.
+     *
+     * @param name term name or synonym.
+     * @return a non null set of terms.
+     */
+    public Set<OntologyTermI> getTermsByName( String name );
     
     void setName(String name);
        
@@ -52,9 +61,30 @@ public interface OntologyAccess {
 
     Set<OntologyTermI> getDirectChildren( OntologyTermI term );
 
+    /**
+     * All ancestors of the term (transitive closure of the parents).
+     *
+     * @param term the ontology term.
+     * @return a non null set (unmodifiable, may be a view).
+     */
     Set<OntologyTermI> getAllParents( OntologyTermI term );
 
+    /**
+     * All descendants of the term (transitive closure of the children).
+     *
+     * @param term the ontology term.
+     * @return a non null set (unmodifiable, may be a view).
+     */
     Set<OntologyTermI> getAllChildren( OntologyTermI term );
+
+    /**
+     * Whether the first term is an ancestor (parent, grand-parent, etc.) of the second one.
+     *
+     * @param ancestor the candidate ancestor term.
+     * @param term     the term.
+     * @return true if the term is a descendant of the ancestor term.
+     */
+    boolean isAncestor( OntologyTermI ancestor, OntologyTermI term );
     
     void addLink( String parentId, String childId );
     
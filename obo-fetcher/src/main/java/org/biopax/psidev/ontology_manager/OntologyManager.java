@@ -4,6 +4,7 @@ package org.biopax.psidev.ontology_manager;
 import org.biopax.psidev.ontology_manager.impl.OntologyLoaderException;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public interface OntologyManager {
 
@@ -18,13 +19,37 @@ public interface OntologyManager {
   boolean containsOntology(String ontologyID);
 
 
+  /**
+   * Loads the ontologies.
+   *
+   * @param cfg ontology ID to the OBO resource (URL, file, or classpath:) map;
+   *            a key with a dot is an option, e.g. "GO.access=compact"
+   *            (uses a compact in-memory representation of the ontology)
+   *            or "GO.access=mapped" (reads the memory-mapped cache file on demand),
+   *            "GO.loader=lean" (the OBO-Edit/OLS parser skips what's not used here),
+   *            "GO.loader=stream" (uses the light-weight streaming OBO parser).
+   * @throws OntologyLoaderException when an ontology fails to load
+   *            (reports all the failed ontologies)
+   */
   void loadOntologies(Properties cfg)
     throws OntologyLoaderException;
 
+  /**
+   * Starts loading the ontologies concurrently (on a bounded thread pool)
+   * and returns at once.
+   *
+   * @param cfg same as in {@link #loadOntologies(Properties)}
+   * @return ontology ID to the future, which is completed when the ontology
+   *         is available from this manager (or failed with an {@link OntologyLoaderException})
+   * @throws OntologyLoaderException when the config is empty
+   */
+  Map<String, CompletableFuture<OntologyAccess>> loadOntologiesAsync(Properties cfg)
+    throws OntologyLoaderException;
+
   /**
    * Search for terms using a preferred name or synonym.
-   * The search is case insensitive.
-   * It iterates through all loaded ontologies, so use with caution!
+   * The search is case insensitive
+   * (it uses the name index of each loaded ontology).
    *
    * @param name - term name (not ID)
    * @return
@@ -34,8 +59,8 @@ public interface OntologyManager {
   /**
    * Search for terms by name or synonym.
    * The search is case insensitive.
-   * It still iterates over all available ontologies, but
-   * skips ones other than specified in the second parameter.
+   * It looks up the name index of each ontology
+   * specified in the second parameter (all, if null or empty).
    *
    * @param name - term name (not ID)
    * @param ontologies to look into
@@ -46,6 +71,8 @@ public interface OntologyManager {
 
   /**
    * Finds an ontology term by its accession.
+   * Only the ontologies that contain terms with the same
+   * accession prefix (namespace, e.g., "GO:") are looked up.
    *
    * @param acc
    * @return term
@@ -67,6 +94,13 @@ public interface OntologyManager {
 
   Set<OntologyTermI> getAllParents(String urn);
 
+  /**
+   * Whether the term is a descendant (child, grandchild, etc.) of the parent term.
+   *
+   * @param parentUrn parent term URI/URN or accession
+   * @param urn term URI/URN or accession
+   * @return true if both terms are found in the same ontology, and the first one is an ancestor
+   */
   boolean isChild(String parentUrn, String urn);
 
   OntologyTermI findTerm(OntologyAccess ontologyAccess, String term);
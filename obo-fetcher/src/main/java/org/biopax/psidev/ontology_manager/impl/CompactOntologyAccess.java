@@ -0,0 +1,612 @@
+package org.biopax.psidev.ontology_manager.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.biopax.psidev.ontology_manager.OntologyAccess;
+import org.biopax.psidev.ontology_manager.OntologyTermI;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Memory-efficient access to a local ontology (an alternative to {@link OntologyAccessImpl}).
+ *
+ * Each term gets a dense int ordinal; the term data are kept in arrays
+ * (strings are deduplicated), the parent-child links - in compressed sparse row (CSR)
+ * int arrays, and obsolete terms are marked in a bit set, i.e., there are no term objects
+ * and hash sets of them on the heap. The {@link OntologyTermI} objects returned are
+ * light-weight views created on demand (equal to any term having the same accession).
+ *
+ * Terms and links can be added any time, but the CSR arrays and name index
+ * are (re-)built on the first query after that, so it's best to load all
+ * the terms and links first.
+ * To use it, set the "ID.access=compact" property in the ontologies config.
+ */
+public class CompactOntologyAccess implements OntologyAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger log = LoggerFactory.getLogger( CompactOntologyAccess.class );
+
+    private static final String[] NO_STRINGS = new String[0];
+
+    private String name;
+
+    /**
+     * The number of terms; term data by ordinal.
+     */
+    private int size = 0;
+    private String[] accessions = new String[1024];
+    private String[] names = new String[1024];
+    private String[][] synonyms = new String[1024][];
+    private String[] ontologyIds = new String[1024];
+
+    /**
+     * Obsolete terms (by ordinal).
+     */
+    private final BitSet obsolete = new BitSet();
+
+    /**
+     * Open addressing hash table: accession -> ordinal + 1 (0 means empty slot).
+     */
+    private int[] table = new int[2048];
+
+    /**
+     * Links (parent -> child ordinals), in the order added.
+     */
+    private int links = 0;
+    private int[] linkParents = new int[1024];
+    private int[] linkChildren = new int[1024];
+
+    /**
+     * String pool, to deduplicate names and synonyms (only while adding terms).
+     */
+    private transient Map<String, String> strings;
+
+    /**
+     * CSR adjacency and name index, built on demand.
+     */
+    private transient volatile Graph graph;
+
+    /**
+     * Reachability index (ancestors/descendants of every term), built on demand.
+     */
+    private transient volatile ReachabilityIndex closure;
+
+    public CompactOntologyAccess() {
+    }
+
+    public void setName( String name ) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<OntologyTermI> getValidTerms( String accession, boolean allowChildren, boolean useTerm ) {
+        Set<OntologyTermI> collectedTerms = new HashSet<>();
+
+        final OntologyTermI term = getTermForAccession( accession );
+        if ( term != null ) {
+            if ( useTerm ) {
+                collectedTerms.add( term );
+            }
+
+            if ( allowChildren ) {
+                collectedTerms.addAll( getAllChildren( term ) );
+            }
+        }
+
+        return collectedTerms;
+    }
+
+    public OntologyTermI getTermForAccession( String accession ) {
+        return search( accession );
+    }
+
+    public Set<OntologyTermI> getTermsByName( String name ) {
+        final Graph g = getGraph();
+        final String key = OntologyAccessImpl.nameKey( name );
+        int i = Arrays.binarySearch( g.nameKeys, key );
+        if ( i < 0 ) {
+            return Collections.emptySet();
+        }
+        while ( i > 0 && g.nameKeys[i - 1].equals( key ) ) {
+            i--;
+        }
+        int j = i + 1;
+        while ( j < g.nameKeys.length && g.nameKeys[j].equals( key ) ) {
+            j++;
+        }
+        final int[] ordinals = Arrays.copyOfRange( g.nameTerms, i, j );
+        Arrays.sort( ordinals );
+        return new Terms( ordinals, 0, unique( ordinals, ordinals.length ) );
+    }
+
+    /**
+     * Answer the question: 'Has that ontology any term loaded ?'.
+     *
+     * @return true is there are any terms loaded, false otherwise.
+     */
+    public boolean hasTerms() {
+        return size > 0;
+    }
+
+    public OntologyTermI search( String id ) {
+        final int t = ordinal( id );
+        return ( t < 0 ) ? null : new Term( t );
+    }
+
+    public Collection<OntologyTermI> getRoots() {
+        final Graph g = getGraph();
+        final List<OntologyTermI> roots = new ArrayList<>();
+        for ( int t = 0; t < size; t++ ) {
+            if ( g.parentStart[t] == g.parentStart[t + 1] ) {
+                roots.add( new Term( t ) );
+            }
+        }
+        return roots;
+    }
+
+    public Collection<OntologyTermI> getOntologyTerms() {
+        final int n = size;
+        return new AbstractList<OntologyTermI>() {
+            public OntologyTermI get( int index ) {
+                if ( index < 0 || index >= n ) {
+                    throw new IndexOutOfBoundsException( "Index: " + index );
+                }
+                return new Term( index );
+            }
+
+            public int size() {
+                return n;
+            }
+        };
+    }
+
+    public Collection<OntologyTermI> getObsoleteTerms() {
+        final List<OntologyTermI> terms = new ArrayList<>( obsolete.cardinality() );
+        for ( int t = obsolete.nextSetBit( 0 ); t >= 0; t = obsolete.nextSetBit( t + 1 ) ) {
+            terms.add( new Term( t ) );
+        }
+        return Collections.unmodifiableList( terms );
+    }
+
+    public boolean isObsolete( OntologyTermI term ) {
+        final int t = ordinal( term );
+        return t >= 0 && obsolete.get( t );
+    }
+
+    public Set<OntologyTermI> getDirectParents( OntologyTermI term ) {
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            return Collections.emptySet();
+        }
+        final Graph g = getGraph();
+        return new Terms( g.parents, g.parentStart[t], g.parentStart[t + 1] );
+    }
+
+    public Set<OntologyTermI> getDirectChildren( OntologyTermI term ) {
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            return Collections.emptySet();
+        }
+        final Graph g = getGraph();
+        return new Terms( g.children, g.childStart[t], g.childStart[t + 1] );
+    }
+
+    public Set<OntologyTermI> getAllParents( OntologyTermI term ) {
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            return Collections.emptySet();
+        }
+        final int[] ancestors = getClosure().ancestors( t );
+        return new Terms( ancestors, 0, ancestors.length );
+    }
+
+    public Set<OntologyTermI> getAllChildren( OntologyTermI term ) {
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            return Collections.emptySet();
+        }
+        final int[] descendants = getClosure().descendants( t );
+        return new Terms( descendants, 0, descendants.length );
+    }
+
+    public boolean isAncestor( OntologyTermI ancestor, OntologyTermI term ) {
+        final int a = ordinal( ancestor );
+        final int t = ordinal( term );
+        return a >= 0 && t >= 0 && getClosure().isAncestor( a, t );
+    }
+
+    /**
+     * Create a relationship parent to child between two terms.
+     *
+     * @param parentId The parent term.
+     * @param childId  The child term.
+     */
+    public synchronized void addLink( String parentId, String childId ) {
+        final int child = ordinal( childId );
+        final int parent = ordinal( parentId );
+        if ( child < 0 || parent < 0 ) {
+            throw new NullPointerException( "You must give a non null " +
+              "child/parent for addLink method!" );
+        }
+        if ( links == linkParents.length ) {
+            linkParents = Arrays.copyOf( linkParents, links * 2 + 16 );
+            linkChildren = Arrays.copyOf( linkChildren, links * 2 + 16 );
+        }
+        linkParents[links] = parent;
+        linkChildren[links] = child;
+        links++;
+        flush();
+    }
+
+    /**
+     * Add a new term (copy its data) or replace the term having the same accession.
+     *
+     * @param term the OntologyTerm to add in that OntologyAccess.
+     */
+    public synchronized void addTerm( OntologyTermI term ) {
+        final String id = term.getTermAccession();
+        int t = ordinal( id );
+        if ( t >= 0 ) {
+            log.error( "WARNING: 2 Objects have the same ID (" + id
+              + "), the old one is being replaced. old: "
+              + names[t] + " new: " + term.getPreferredName() );
+        } else {
+            t = size++;
+            if ( t == accessions.length ) {
+                final int capacity = t + ( t >> 1 ) + 16;
+                accessions = Arrays.copyOf( accessions, capacity );
+                names = Arrays.copyOf( names, capacity );
+                synonyms = Arrays.copyOf( synonyms, capacity );
+                ontologyIds = Arrays.copyOf( ontologyIds, capacity );
+            }
+            accessions[t] = id;
+            if ( size * 2 > table.length ) {
+                rehash( table.length * 2 );
+            } else {
+                insert( table, t );
+            }
+        }
+        names[t] = intern( term.getPreferredName() );
+        ontologyIds[t] = intern( term.getOntologyId() );
+        setSynonyms( t, term.getNameSynonyms() );
+        flush();
+    }
+
+    public synchronized void addObsoleteTerm( OntologyTermI term ) {
+        if ( term == null ) {
+            throw new IllegalArgumentException( "You must give a non null term" );
+        }
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            log.warn( "Cannot mark unknown term as obsolete: " + term.getTermAccession() );
+        } else {
+            log.debug( "Adding obsolete term: " + term.getTermAccession() + " " + term.getPreferredName() );
+            obsolete.set( t );
+        }
+    }
+
+    private void setSynonyms( int t, Collection<String> values ) {
+        if ( values == null || values.isEmpty() ) {
+            synonyms[t] = NO_STRINGS;
+        } else {
+            final String[] a = new String[values.size()];
+            int k = 0;
+            for ( String s : values ) {
+                a[k++] = intern( s );
+            }
+            synonyms[t] = a;
+        }
+    }
+
+    private String intern( String s ) {
+        if ( s == null ) {
+            return null;
+        }
+        if ( strings == null ) {
+            strings = new HashMap<>();
+        }
+        final String pooled = strings.putIfAbsent( s, s );
+        return ( pooled != null ) ? pooled : s;
+    }
+
+    // invalidates the derived indices
+    private void flush() {
+        graph = null;
+        closure = null;
+    }
+
+    // releases the unused capacity of the term and link arrays
+    private void trim() {
+        if ( accessions.length > size ) {
+            accessions = Arrays.copyOf( accessions, size );
+            names = Arrays.copyOf( names, size );
+            synonyms = Arrays.copyOf( synonyms, size );
+            ontologyIds = Arrays.copyOf( ontologyIds, size );
+        }
+        if ( linkParents.length > links ) {
+            linkParents = Arrays.copyOf( linkParents, links );
+            linkChildren = Arrays.copyOf( linkChildren, links );
+        }
+    }
+
+    private int ordinal( OntologyTermI term ) {
+        return ( term == null ) ? -1 : ordinal( term.getTermAccession() );
+    }
+
+    private int ordinal( String accession ) {
+        if ( accession == null ) {
+            return -1;
+        }
+        final int[] tab = table;
+        final int mask = tab.length - 1;
+        for ( int i = hash( accession ) & mask; ; i = ( i + 1 ) & mask ) {
+            final int e = tab[i];
+            if ( e == 0 ) {
+                return -1;
+            }
+            if ( accession.equals( accessions[e - 1] ) ) {
+                return e - 1;
+            }
+        }
+    }
+
+    private void insert( int[] tab, int t ) {
+        final int mask = tab.length - 1;
+        int i = hash( accessions[t] ) & mask;
+        while ( tab[i] != 0 ) {
+            i = ( i + 1 ) & mask;
+        }
+        tab[i] = t + 1;
+    }
+
+    private void rehash( int capacity ) {
+        final int[] tab = new int[capacity];
+        for ( int t = 0; t < size; t++ ) {
+            insert( tab, t );
+        }
+        table = tab;
+    }
+
+    private static int hash( String s ) {
+        final int h = s.hashCode();
+        return h ^ ( h >>> 16 );
+    }
+
+    // sorts out duplicates in the sorted array range [0, to); returns the new end
+    private static int unique( int[] a, int to ) {
+        int n = 0;
+        for ( int i = 0; i < to; i++ ) {
+            if ( n == 0 || a[n - 1] != a[i] ) {
+                a[n++] = a[i];
+            }
+        }
+        return n;
+    }
+
+    private Graph getGraph() {
+        Graph g = graph;
+        if ( g == null ) {
+            synchronized ( this ) {
+                g = graph;
+                if ( g == null ) {
+                    trim();
+                    g = new Graph();
+                    graph = g;
+                    strings = null; // no more needed (most likely)
+                }
+            }
+        }
+        return g;
+    }
+
+    private ReachabilityIndex getClosure() {
+        ReachabilityIndex c = closure;
+        if ( c == null ) {
+            final Graph g = getGraph();
+            synchronized ( this ) {
+                c = closure;
+                if ( c == null ) {
+                    final int[][] adjacency = new int[size][];
+                    for ( int t = 0; t < size; t++ ) {
+                        adjacency[t] = Arrays.copyOfRange( g.parents, g.parentStart[t], g.parentStart[t + 1] );
+                    }
+                    c = new ReachabilityIndex( adjacency );
+                    closure = c;
+                    log.debug( "Built the reachability index of " + name + " (" + size + " terms)" );
+                }
+            }
+        }
+        return c;
+    }
+
+    /*
+     * Derived, read-only data: parents/children in CSR format
+     * (term t's neighbors are at [start[t], start[t+1]), sorted, no duplicates),
+     * and the case-folded name/synonym index (sorted keys, parallel term ordinals).
+     */
+    private final class Graph {
+        final int[] parentStart;
+        final int[] parents;
+        final int[] childStart;
+        final int[] children;
+        final String[] nameKeys;
+        final int[] nameTerms;
+
+        Graph() {
+            parentStart = new int[size + 1];
+            childStart = new int[size + 1];
+            parents = csr( linkChildren, linkParents, parentStart );
+            children = csr( linkParents, linkChildren, childStart );
+
+            int n = 0;
+            for ( int t = 0; t < size; t++ ) {
+                n += ( names[t] != null ? 1 : 0 ) + synonyms[t].length;
+            }
+            final String[] keys = new String[n];
+            final int[] terms = new int[n];
+            int k = 0;
+            for ( int t = 0; t < size; t++ ) {
+                if ( names[t] != null ) {
+                    keys[k] = OntologyAccessImpl.nameKey( names[t] );
+                    terms[k++] = t;
+                }
+                for ( String s : synonyms[t] ) {
+                    keys[k] = OntologyAccessImpl.nameKey( s );
+                    terms[k++] = t;
+                }
+            }
+            final Integer[] order = new Integer[n];
+            for ( int i = 0; i < n; i++ ) {
+                order[i] = i;
+            }
+            Arrays.sort( order, ( a, b ) -> keys[a].compareTo( keys[b] ) );
+            nameKeys = new String[n];
+            nameTerms = new int[n];
+            for ( int i = 0; i < n; i++ ) {
+                nameKeys[i] = keys[order[i]];
+                nameTerms[i] = terms[order[i]];
+            }
+        }
+
+        // groups the links by the 'from' term; fills in the start offsets; returns the 'to' terms
+        private int[] csr( int[] from, int[] to, int[] start ) {
+            final int[] counts = new int[size + 1];
+            for ( int i = 0; i < links; i++ ) {
+                counts[from[i] + 1]++;
+            }
+            for ( int t = 0; t < size; t++ ) {
+                counts[t + 1] += counts[t];
+            }
+            final int[] adjacent = new int[links];
+            final int[] next = Arrays.copyOf( counts, size );
+            for ( int i = 0; i < links; i++ ) {
+                adjacent[next[from[i]]++] = to[i];
+            }
+            // sort and remove duplicate links, compacting the array
+            int n = 0;
+            for ( int t = 0; t < size; t++ ) {
+                start[t] = n;
+                Arrays.sort( adjacent, counts[t], counts[t + 1] );
+                for ( int i = counts[t]; i < counts[t + 1]; i++ ) {
+                    if ( n == start[t] || adjacent[n - 1] != adjacent[i] ) {
+                        adjacent[n++] = adjacent[i];
+                    }
+                }
+            }
+            start[size] = n;
+            return ( n == adjacent.length ) ? adjacent : Arrays.copyOf( adjacent, n );
+        }
+    }
+
+    /*
+     * Read-only set view of the terms (sorted ordinals in the array range).
+     */
+    private final class Terms extends AbstractSet<OntologyTermI> {
+        private final int[] members;
+        private final int from;
+        private final int to;
+
+        Terms( int[] members, int from, int to ) {
+            this.members = members;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<OntologyTermI> iterator() {
+            return new Iterator<OntologyTermI>() {
+                private int i = from;
+
+                public boolean hasNext() {
+                    return i < to;
+                }
+
+                public OntologyTermI next() {
+                    if ( i >= to ) {
+                        throw new NoSuchElementException();
+                    }
+                    return new Term( members[i++] );
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains( Object o ) {
+            final int t = ( o instanceof OntologyTermI ) ? ordinal( ( OntologyTermI ) o ) : -1;
+            return t >= 0 && Arrays.binarySearch( members, from, to, t ) >= 0;
+        }
+    }
+
+    /*
+     * Light-weight term view (name and synonyms changes are written through,
+     * but the name index is not updated until another term or link is added).
+     */
+    private final class Term implements OntologyTermI {
+        private final int t;
+
+        Term( int t ) {
+            this.t = t;
+        }
+
+        public String getTermAccession() {
+            return accessions[t];
+        }
+
+        public void setTermAccession( String accession ) {
+            throw new UnsupportedOperationException( "Cannot change the accession of an ontology term" );
+        }
+
+        public String getPreferredName() {
+            return names[t];
+        }
+
+        public void setPreferredName( String preferredName ) {
+            names[t] = preferredName;
+        }
+
+        public Collection<String> getNameSynonyms() {
+            return Collections.unmodifiableList( Arrays.asList( synonyms[t] ) );
+        }
+
+        public void setNameSynonyms( Collection<String> nameSynonyms ) {
+            synchronized ( CompactOntologyAccess.this ) {
+                setSynonyms( t, nameSynonyms );
+            }
+        }
+
+        public String getOntologyId() {
+            return ontologyIds[t];
+        }
+
+        public void setOntologyId( String ontologyId ) {
+            ontologyIds[t] = ontologyId;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) return true;
+            if ( !( o instanceof OntologyTermI ) ) return false;
+            return accessions[t].equals( ( ( OntologyTermI ) o ).getTermAccession() );
+        }
+
+        @Override
+        public int hashCode() {
+            return accessions[t].hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "OntologyTerm{acc='" + accessions[t] + "', name='" + names[t] + "'}";
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package org.biopax.psidev.ontology_manager.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.biopax.psidev.ontology_manager.OntologyAccess;
+import org.biopax.psidev.ontology_manager.OntologyTermI;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Read-only access to an ontology snapshot file, which is memory-mapped
+ * (so that several JVMs on the same host share the OS page cache), and nothing
+ * is loaded into the heap up front: the {@link OntologyTermI} objects are
+ * light-weight views created on demand, and their names and synonyms
+ * are decoded from the mapped file when asked for.
+ *
+ * Accessions are looked up in the snapshot's sorted accession index (binary search),
+ * so only the reachability index, when needed, is kept on the heap.
+ * Terms and links cannot be added; changes made via
+ * the term setters are kept on the heap too (but not indexed).
+ * To use it, set the "ID.access=mapped" property in the ontologies config.
+ */
+public class MappedOntologyAccess implements OntologyAccess {
+
+    private static final Logger log = LoggerFactory.getLogger( MappedOntologyAccess.class );
+
+    private final OntologySnapshot snapshot;
+
+    private final int size;
+
+    private String name;
+
+    /**
+     * Reachability index (ancestors/descendants of every term), built on demand.
+     */
+    private volatile ReachabilityIndex closure;
+
+    /**
+     * Terms modified via the setters (by ordinal).
+     */
+    private final ConcurrentMap<Integer, OntologyTermI> modified = new ConcurrentHashMap<>();
+
+    MappedOntologyAccess( OntologySnapshot snapshot ) {
+        this.snapshot = snapshot;
+        this.size = snapshot.size();
+        this.name = snapshot.getName();
+    }
+
+    public void setName( String name ) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<OntologyTermI> getValidTerms( String accession, boolean allowChildren, boolean useTerm ) {
+        Set<OntologyTermI> collectedTerms = new HashSet<>();
+
+        final OntologyTermI term = getTermForAccession( accession );
+        if ( term != null ) {
+            if ( useTerm ) {
+                collectedTerms.add( term );
+            }
+
+            if ( allowChildren ) {
+                collectedTerms.addAll( getAllChildren( term ) );
+            }
+        }
+
+        return collectedTerms;
+    }
+
+    public OntologyTermI getTermForAccession( String accession ) {
+        return search( accession );
+    }
+
+    public Set<OntologyTermI> getTermsByName( String name ) {
+        final int[] ordinals = snapshot.termsByName( name );
+        Arrays.sort( ordinals );
+        int n = 0;
+        for ( int i = 0; i < ordinals.length; i++ ) {
+            if ( n == 0 || ordinals[n - 1] != ordinals[i] ) {
+                ordinals[n++] = ordinals[i];
+            }
+        }
+        return new Terms( ordinals, 0, n );
+    }
+
+    public boolean hasTerms() {
+        return size > 0;
+    }
+
+    public OntologyTermI search( String id ) {
+        final int t = ordinal( id );
+        return ( t < 0 ) ? null : new Term( t );
+    }
+
+    public Collection<OntologyTermI> getRoots() {
+        final List<OntologyTermI> roots = new ArrayList<>();
+        for ( int t = 0; t < size; t++ ) {
+            if ( snapshot.parents( t ).length == 0 ) {
+                roots.add( new Term( t ) );
+            }
+        }
+        return roots;
+    }
+
+    public Collection<OntologyTermI> getOntologyTerms() {
+        return new AbstractList<OntologyTermI>() {
+            public OntologyTermI get( int index ) {
+                if ( index < 0 || index >= size ) {
+                    throw new IndexOutOfBoundsException( "Index: " + index );
+                }
+                return new Term( index );
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public Collection<OntologyTermI> getObsoleteTerms() {
+        final int[] obsolete = snapshot.obsoleteTerms();
+        final List<OntologyTermI> terms = new ArrayList<>( obsolete.length );
+        for ( int t : obsolete ) {
+            terms.add( new Term( t ) );
+        }
+        return Collections.unmodifiableList( terms );
+    }
+
+    public boolean isObsolete( OntologyTermI term ) {
+        final int t = ordinal( term );
+        return t >= 0 && snapshot.isObsolete( t );
+    }
+
+    public Set<OntologyTermI> getDirectParents( OntologyTermI term ) {
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            return Collections.emptySet();
+        }
+        final int[] parents = snapshot.parents( t );
+        return new Terms( parents, 0, parents.length );
+    }
+
+    public Set<OntologyTermI> getDirectChildren( OntologyTermI term ) {
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            return Collections.emptySet();
+        }
+        final int[] children = snapshot.children( t );
+        return new Terms( children, 0, children.length );
+    }
+
+    public Set<OntologyTermI> getAllParents( OntologyTermI term ) {
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            return Collections.emptySet();
+        }
+        final int[] ancestors = getClosure().ancestors( t );
+        return new Terms( ancestors, 0, ancestors.length );
+    }
+
+    public Set<OntologyTermI> getAllChildren( OntologyTermI term ) {
+        final int t = ordinal( term );
+        if ( t < 0 ) {
+            return Collections.emptySet();
+        }
+        final int[] descendants = getClosure().descendants( t );
+        return new Terms( descendants, 0, descendants.length );
+    }
+
+    public boolean isAncestor( OntologyTermI ancestor, OntologyTermI term ) {
+        final int a = ordinal( ancestor );
+        final int t = ordinal( term );
+        return a >= 0 && t >= 0 && getClosure().isAncestor( a, t );
+    }
+
+    public void addLink( String parentId, String childId ) {
+        throw new UnsupportedOperationException( "Memory-mapped ontology " + name + " is read-only" );
+    }
+
+    public void addTerm( OntologyTermI term ) {
+        throw new UnsupportedOperationException( "Memory-mapped ontology " + name + " is read-only" );
+    }
+
+    public void addObsoleteTerm( OntologyTermI term ) {
+        throw new UnsupportedOperationException( "Memory-mapped ontology " + name + " is read-only" );
+    }
+
+    private int ordinal( OntologyTermI term ) {
+        return ( term == null ) ? -1 : ordinal( term.getTermAccession() );
+    }
+
+    private int ordinal( String accession ) {
+        return ( accession == null ) ? -1 : snapshot.ordinal( accession );
+    }
+
+    private ReachabilityIndex getClosure() {
+        ReachabilityIndex c = closure;
+        if ( c == null ) {
+            synchronized ( this ) {
+                c = closure;
+                if ( c == null ) {
+                    final int[][] adjacency = new int[size][];
+                    for ( int t = 0; t < size; t++ ) {
+                        adjacency[t] = snapshot.parents( t );
+                    }
+                    c = new ReachabilityIndex( adjacency );
+                    closure = c;
+                    log.debug( "Built the reachability index of " + name + " (" + size + " terms)" );
+                }
+            }
+        }
+        return c;
+    }
+
+    /*
+     * Read-only set view of the terms (sorted ordinals in the array range).
+     */
+    private final class Terms extends AbstractSet<OntologyTermI> {
+        private final int[] members;
+        private final int from;
+        private final int to;
+
+        Terms( int[] members, int from, int to ) {
+            this.members = members;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<OntologyTermI> iterator() {
+            return new Iterator<OntologyTermI>() {
+                private int i = from;
+
+                public boolean hasNext() {
+                    return i < to;
+                }
+
+                public OntologyTermI next() {
+                    if ( i >= to ) {
+                        throw new NoSuchElementException();
+                    }
+                    return new Term( members[i++] );
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains( Object o ) {
+            final int t = ( o instanceof OntologyTermI ) ? ordinal( ( OntologyTermI ) o ) : -1;
+            return t >= 0 && Arrays.binarySearch( members, from, to, t ) >= 0;
+        }
+    }
+
+    /*
+     * Light-weight term view over the snapshot (a modified term is copied to the heap).
+     */
+    private final class Term implements OntologyTermI {
+        private final int t;
+
+        Term( int t ) {
+            this.t = t;
+        }
+
+        // the modified copy or null
+        private OntologyTermI copy() {
+            return modified.get( t );
+        }
+
+        private OntologyTermI modify() {
+            return modified.computeIfAbsent( t, k -> {
+                OntologyTermI term = new OntologyTermImpl( snapshot.ontologyId( t ),
+                  snapshot.accession( t ), snapshot.name( t ) );
+                term.getNameSynonyms().addAll( snapshot.synonyms( t ) );
+                return term;
+            } );
+        }
+
+        public String getTermAccession() {
+            return snapshot.accession( t );
+        }
+
+        public void setTermAccession( String accession ) {
+            throw new UnsupportedOperationException( "Cannot change the accession of an ontology term" );
+        }
+
+        public String getPreferredName() {
+            final OntologyTermI copy = copy();
+            return ( copy != null ) ? copy.getPreferredName() : snapshot.name( t );
+        }
+
+        public void setPreferredName( String preferredName ) {
+            modify().setPreferredName( preferredName );
+        }
+
+        public Collection<String> getNameSynonyms() {
+            final OntologyTermI copy = copy();
+            return Collections.unmodifiableCollection(
+              ( copy != null ) ? copy.getNameSynonyms() : snapshot.synonyms( t ) );
+        }
+
+        public void setNameSynonyms( Collection<String> nameSynonyms ) {
+            modify().setNameSynonyms( ( nameSynonyms == null ) ? null : new ArrayList<>( nameSynonyms ) );
+        }
+
+        public String getOntologyId() {
+            final OntologyTermI copy = copy();
+            return ( copy != null ) ? copy.getOntologyId() : snapshot.ontologyId( t );
+        }
+
+        public void setOntologyId( String ontologyId ) {
+            modify().setOntologyId( ontologyId );
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) return true;
+            if ( !( o instanceof OntologyTermI ) ) return false;
+            return getTermAccession().equals( ( ( OntologyTermI ) o ).getTermAccession() );
+        }
+
+        @Override
+        public int hashCode() {
+            return getTermAccession().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "OntologyTerm{acc='" + getTermAccession() + "', name='" + getPreferredName() + "'}";
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.biopax.psidev.ontology_manager.impl;
 
+import org.apache.commons.text.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.biopax.ols.TermRelationship;
@@ -30,6 +31,14 @@ public class OboLoader extends BaseOBO2AbstractLoader {
     public OboLoader( ) {
     }
 
+    /**
+     * @param lean whether to skip what the ontology access does not need
+     *             (root terms, paths, annotations and dbxrefs) to load faster and use less memory
+     */
+    public OboLoader( boolean lean ) {
+        setLean( lean );
+    }
+
     /**
      * Parse the given OBO file and build a representation of the DAG into an IntactOntology.
      *
@@ -37,6 +46,18 @@ public class OboLoader extends BaseOBO2AbstractLoader {
      * @return a non null IntactOntology.
      */
     public OntologyAccess parseOboFile( File file, String ontologyID) {
+        return parseOboFile( file, ontologyID, new OntologyAccessImpl() );
+    }
+
+    /**
+     * Parse the given OBO file and add the terms and links to the ontology access object.
+     *
+     * @param file the input file (has to exist and be readable)
+     * @param ontologyID ontology ID
+     * @param ontologyAccess an empty ontology access object to fill in (e.g., {@link CompactOntologyAccess})
+     * @return the ontology access object
+     */
+    public OntologyAccess parseOboFile( File file, String ontologyID, OntologyAccess ontologyAccess ) {
 
         if ( !file.exists() ) {
             throw new IllegalArgumentException( file.getAbsolutePath() + " doesn't exist." );
@@ -52,7 +73,7 @@ public class OboLoader extends BaseOBO2AbstractLoader {
         } catch ( Exception e ) {
             log.error("Parse failed", e);
         }
-        return buildOntology(ontologyID);
+        return buildOntology(ontologyID, ontologyAccess);
     }
 
 
@@ -65,6 +86,20 @@ public class OboLoader extends BaseOBO2AbstractLoader {
      * @see #parseOboFile(File, String)
      */
     public OntologyAccess parseOboFile(URL url, String ontologyID ) throws Exception {
+        return parseOboFile( url, ontologyID, new OntologyAccessImpl() );
+    }
+
+    /**
+     * Load an OBO data from URL (uses a temporary local file)
+     * into the ontology access object.
+     *
+     * @param url of the resource to load (not null)
+     * @param ontologyID ontology ID
+     * @param ontologyAccess an empty ontology access object to fill in
+     * @return the ontology access object
+     * @see #parseOboFile(File, String, OntologyAccess)
+     */
+    public OntologyAccess parseOboFile(URL url, String ontologyID, OntologyAccess ontologyAccess ) throws Exception {
         if ( url == null ) {
             throw new IllegalArgumentException( "URL is null" );
         }
@@ -75,16 +110,14 @@ public class OboLoader extends BaseOBO2AbstractLoader {
             log.info("Using a temporary OBO file: " + tmp);
             Files.copy(url.openStream(), tmp, StandardCopyOption.REPLACE_EXISTING);
             // process the temporary OBO file
-            return parseOboFile(tmp.toFile(), ontologyID);
+            return parseOboFile(tmp.toFile(), ontologyID, ontologyAccess);
         } catch ( IOException e ) {
             throw new OntologyLoaderException( "Failed to parse OBO data from URI", e );
         }
     }
 
 
-    private OntologyAccess buildOntology(String ontologyID) {
-
-        OntologyAccess ontologyAccess = new OntologyAccessImpl();
+    private OntologyAccess buildOntology(String ontologyID, OntologyAccess ontologyAccess) {
 
         // 1. convert and index all terms (note: at this stage we don't handle the hierarchy)
         for ( Iterator iterator = ontBean.getTerms().iterator(); iterator.hasNext(); ) {
@@ -99,12 +132,14 @@ public class OboLoader extends BaseOBO2AbstractLoader {
             	continue; // skip
             
             // convert term into a OboTerm
-            OntologyTermI ontologyTerm = new OntologyTermImpl(ontologyID, term.getIdentifier(), term.getName());
+            // (fix xml escape symbols in the names, which come from the OLS parser, before the term is indexed)
+            OntologyTermI ontologyTerm = new OntologyTermImpl(ontologyID, term.getIdentifier(),
+              StringEscapeUtils.unescapeXml(term.getName()));
             
             final Collection<TermSynonym> synonyms = term.getSynonyms();
             if( synonyms != null ) {
                 for ( TermSynonym synonym : synonyms ) {
-                    ontologyTerm.getNameSynonyms().add( synonym.getSynonym() );
+                    ontologyTerm.getNameSynonyms().add( StringEscapeUtils.unescapeXml( synonym.getSynonym() ) );
                 }
             }
 
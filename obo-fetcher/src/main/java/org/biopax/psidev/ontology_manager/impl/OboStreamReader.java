@@ -0,0 +1,304 @@
+package org.biopax.psidev.ontology_manager.impl;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.biopax.psidev.ontology_manager.OntologyAccess;
+import org.biopax.psidev.ontology_manager.OntologyTermI;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Single-pass OBO (1.2, 1.4) reader that builds an ontology access object
+ * straight from the input stream (no temporary file, no OBO-Edit session and OLS beans),
+ * an alternative to {@link OboLoader}.
+ *
+ * It reads only what the ontology access needs from the [Term] and [Instance] stanzas:
+ * id, name, synonyms (including the OBO 1.0 *_synonym tags) and alt_id (as synonyms, like OLS does),
+ * is_obsolete, and the is_a, relationship (any type), and intersection_of links;
+ * the [Typedef] stanzas, union_of, disjoint_from and all other tags are skipped.
+ * Unlike {@link OboLoader}, it does not create pseudo-terms for the relationship and synonym types.
+ * To use it, set the "ID.loader=stream" property in the ontologies config.
+ */
+public class OboStreamReader {
+    private static final Logger log = LoggerFactory.getLogger( OboStreamReader.class );
+
+    public OboStreamReader() {
+    }
+
+    /**
+     * Reads OBO data from the URL into the ontology access object.
+     *
+     * @param url            of the resource to load (not null)
+     * @param ontologyID     ontology ID
+     * @param ontologyAccess an empty ontology access object to fill in
+     * @return the ontology access object
+     * @throws OntologyLoaderException when failed to read
+     */
+    public OntologyAccess read( URL url, String ontologyID, OntologyAccess ontologyAccess )
+        throws OntologyLoaderException
+    {
+        if ( url == null ) {
+            throw new IllegalArgumentException( "URL is null" );
+        }
+        log.info( "Reading OBO data from URI: " + url );
+        try ( InputStream in = url.openStream() ) {
+            return read( in, ontologyID, ontologyAccess );
+        } catch ( IOException e ) {
+            throw new OntologyLoaderException( "Failed to read OBO data from URI", e );
+        }
+    }
+
+    /**
+     * Reads OBO data from the stream into the ontology access object.
+     *
+     * @param in             OBO data (UTF-8); not closed here
+     * @param ontologyID     ontology ID
+     * @param ontologyAccess an empty ontology access object to fill in
+     * @return the ontology access object
+     * @throws IOException when failed to read
+     */
+    public OntologyAccess read( InputStream in, String ontologyID, OntologyAccess ontologyAccess )
+        throws IOException
+    {
+        // we want to ignore the PSI-MOD terms that are included into PSI-MI files (as OboLoader does)
+        final boolean skipMod = "PSI-MI".equals( ontologyID ) || "MI".equals( ontologyID );
+
+        final BufferedReader reader = new BufferedReader( new InputStreamReader( in, StandardCharsets.UTF_8 ), 1 << 16 );
+        final Set<String> ids = new HashSet<>();
+        final List<String> links = new ArrayList<>(); // parent, child pairs
+        String defaultNamespace = null;
+        Stanza stanza = null;
+        boolean inHeader = true;
+
+        String line;
+        while ( ( line = readLine( reader ) ) != null ) {
+            line = line.trim();
+            if ( line.isEmpty() || line.charAt( 0 ) == '!' ) {
+                continue;
+            }
+
+            if ( line.charAt( 0 ) == '[' ) {
+                add( stanza, ontologyID, defaultNamespace, skipMod, ontologyAccess, ids, links );
+                inHeader = false;
+                stanza = ( line.startsWith( "[Term]" ) || line.startsWith( "[Instance]" ) ) ? new Stanza() : null;
+                continue;
+            }
+
+            final int colon = tagEnd( line );
+            if ( colon < 0 ) {
+                continue;
+            }
+            final String tag = line.substring( 0, colon ).trim();
+            final String value = line.substring( colon + 1 ).trim();
+
+            if ( inHeader ) {
+                if ( "default-namespace".equals( tag ) ) {
+                    defaultNamespace = value( value, true );
+                }
+            } else if ( stanza != null ) {
+                switch ( tag ) {
+                    case "id":
+                        stanza.id = value( value, true );
+                        break;
+                    case "name":
+                        stanza.name = value( value, true );
+                        break;
+                    case "namespace":
+                        stanza.namespace = value( value, true );
+                        break;
+                    case "synonym":
+                    case "exact_synonym":
+                    case "narrow_synonym":
+                    case "broad_synonym":
+                    case "related_synonym":
+                        String synonym = quoted( value );
+                        if ( synonym != null && !synonym.isEmpty() ) {
+                            stanza.synonyms.add( synonym );
+                        }
+                        break;
+                    case "alt_id":
+                        stanza.synonyms.add( value( value, true ) );
+                        break;
+                    case "is_obsolete":
+                        stanza.obsolete = "true".equals( value( value, true ) );
+                        break;
+                    case "is_a":
+                        stanza.parents.add( value( value, true ) );
+                        break;
+                    case "relationship":
+                    case "intersection_of":
+                        // "type target" or (intersection genus) just "target"
+                        String rel = value( value, true );
+                        int space = rel.lastIndexOf( ' ' );
+                        stanza.parents.add( ( space < 0 ) ? rel : rel.substring( space + 1 ) );
+                        break;
+                    default:
+                        break; // not used
+                }
+            }
+        }
+        add( stanza, ontologyID, defaultNamespace, skipMod, ontologyAccess, ids, links );
+
+        // links between the known terms only
+        int skipped = 0;
+        for ( int i = 0; i < links.size(); i += 2 ) {
+            final String parent = links.get( i );
+            final String child = links.get( i + 1 );
+            if ( ids.contains( parent ) && ids.contains( child ) ) {
+                ontologyAccess.addLink( parent, child );
+            } else {
+                skipped++;
+            }
+        }
+        log.info( "Read " + ids.size() + " terms and " + ( links.size() / 2 - skipped ) + " links of " + ontologyID
+          + " (skipped " + skipped + " links to unknown terms)" );
+
+        return ontologyAccess;
+    }
+
+    private static void add( Stanza stanza, String ontologyID, String defaultNamespace, boolean skipMod,
+                             OntologyAccess ontologyAccess, Set<String> ids, List<String> links )
+    {
+        if ( stanza == null || stanza.id == null || stanza.id.isEmpty() || stanza.id.startsWith( "obo:" ) ) {
+            return;
+        }
+        final String namespace = ( stanza.namespace != null ) ? stanza.namespace : defaultNamespace;
+        if ( skipMod && "PSI-MOD".equals( namespace ) ) {
+            return;
+        }
+
+        // (xml escape symbols in the names are replaced before the term is indexed, as OboLoader does)
+        final OntologyTermI term = new OntologyTermImpl( ontologyID, stanza.id, StringEscapeUtils.unescapeXml( stanza.name ) );
+        for ( String synonym : stanza.synonyms ) {
+            term.getNameSynonyms().add( StringEscapeUtils.unescapeXml( synonym ) );
+        }
+        ontologyAccess.addTerm( term );
+        if ( stanza.obsolete ) {
+            ontologyAccess.addObsoleteTerm( term );
+        }
+        ids.add( stanza.id );
+
+        for ( String parent : stanza.parents ) {
+            links.add( parent );
+            links.add( stanza.id );
+        }
+    }
+
+    // reads a line, joining the lines that end with an escaped newline
+    private static String readLine( BufferedReader reader ) throws IOException {
+        String line = reader.readLine();
+        if ( line == null || !endsWithEscape( line ) ) {
+            return line;
+        }
+        StringBuilder sb = new StringBuilder( line );
+        while ( line != null && endsWithEscape( line ) ) {
+            sb.setLength( sb.length() - 1 );
+            sb.append( '\n' );
+            line = reader.readLine();
+            if ( line != null ) {
+                sb.append( line );
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean endsWithEscape( String line ) {
+        int n = 0;
+        for ( int i = line.length() - 1; i >= 0 && line.charAt( i ) == '\\'; i-- ) {
+            n++;
+        }
+        return n % 2 == 1;
+    }
+
+    // position of the first unescaped colon (the end of the tag name), or -1
+    private static int tagEnd( String line ) {
+        for ( int i = 0; i < line.length(); i++ ) {
+            char c = line.charAt( i );
+            if ( c == '\\' ) {
+                i++;
+            } else if ( c == ':' ) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Unescaped tag value, without the comment (after an unescaped '!')
+     * and, optionally, the trailing modifiers ({...}).
+     */
+    private static String value( String value, boolean stripModifiers ) {
+        final StringBuilder sb = new StringBuilder( value.length() );
+        int modifiers = -1;
+        for ( int i = 0; i < value.length(); i++ ) {
+            char c = value.charAt( i );
+            if ( c == '\\' && i + 1 < value.length() ) {
+                sb.append( unescape( value.charAt( ++i ) ) );
+            } else if ( c == '!' ) {
+                break;
+            } else {
+                if ( c == '{' && modifiers < 0 ) {
+                    modifiers = sb.length();
+                }
+                sb.append( c );
+            }
+        }
+        String s = sb.toString().trim();
+        if ( stripModifiers && modifiers >= 0 && s.endsWith( "}" ) ) {
+            s = s.substring( 0, modifiers ).trim();
+        }
+        return s;
+    }
+
+    /*
+     * Unescaped, trimmed text of the first quoted string in the value (e.g., synonym: "text" EXACT []),
+     * or null if there is none.
+     */
+    private static String quoted( String value ) {
+        final int start = value.indexOf( '"' );
+        if ( start < 0 ) {
+            return null;
+        }
+        final StringBuilder sb = new StringBuilder();
+        for ( int i = start + 1; i < value.length(); i++ ) {
+            char c = value.charAt( i );
+            if ( c == '\\' && i + 1 < value.length() ) {
+                sb.append( unescape( value.charAt( ++i ) ) );
+            } else if ( c == '"' ) {
+                break;
+            } else {
+                sb.append( c );
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private static char unescape( char c ) {
+        switch ( c ) {
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'W':
+                return ' ';
+            default:
+                return c;
+        }
+    }
+
+    /*
+     * Data collected from a [Term] or [Instance] stanza.
+     */
+    private static final class Stanza {
+        String id;
+        String name;
+        String namespace;
+        boolean obsolete;
+        final Set<String> synonyms = new LinkedHashSet<>();
+        final List<String> parents = new ArrayList<>();
+    }
+}
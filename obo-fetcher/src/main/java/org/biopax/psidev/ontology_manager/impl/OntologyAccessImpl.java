@@ -18,7 +18,7 @@ import java.util.*;
  */
 public class OntologyAccessImpl implements OntologyAccess, Serializable {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     public static final Logger log = LoggerFactory.getLogger( OntologyAccessImpl.class );
 
@@ -73,11 +73,21 @@ public class OntologyAccessImpl implements OntologyAccess, Serializable {
      */
     private Map<String, OntologyTermI> id2ontologyTerm = new HashMap<>( 1024 );
 
+    /**
+     * Mapping of all terms by their case-folded names and synonyms.
+     */
+    private Map<String, Set<OntologyTermI>> name2ontologyTerms = new HashMap<>( 1024 );
+
     /**
      * Collection of root terms of that ontology. A root term is a term having no parent.
      */
     private Collection<OntologyTermI> roots = null;
 
+    /**
+     * Reachability index (ancestors/descendants of every term), built on demand.
+     */
+    private transient volatile Closure closure = null;
+
     /**
      * List of all obsolete term found while loading the ontology.
      */
@@ -98,9 +108,43 @@ public class OntologyAccessImpl implements OntologyAccess, Serializable {
               + old.getPreferredName() + " new: " + term.getPreferredName() );
         }
         id2ontologyTerm.put( id, term );
+        indexName( term.getPreferredName(), term );
+        for ( String synonym : term.getNameSynonyms() ) {
+            indexName( synonym, term );
+        }
         flushRootsCache();
     }
 
+    private void indexName( String name, OntologyTermI term ) {
+        if ( name == null ) {
+            log.error( "Null name or synonym of term " + term.getTermAccession() + " in " + this.name );
+            return;
+        }
+        name2ontologyTerms.computeIfAbsent( nameKey( name ), k -> new HashSet<>( 2 ) ).add( term );
+    }
+
+    /**
+     * Case-folds a term name or synonym for the name indices (also of the compact and snapshot access),
+     * so that the keys match iff the names are {@link String#equalsIgnoreCase(String) equal ignoring case}.
+     *
+     * @param name term name or synonym
+     * @return the index key
+     */
+    static String nameKey( String name ) {
+        final StringBuilder key = new StringBuilder( name.length() );
+        name.codePoints().forEach( cp -> key.appendCodePoint( Character.toLowerCase( Character.toUpperCase( cp ) ) ) );
+        return key.toString();
+    }
+
+    public Set<OntologyTermI> getTermsByName( String name ) {
+        final Set<OntologyTermI> terms = name2ontologyTerms.get( nameKey( name ) );
+        if ( terms == null ) {
+            return Collections.emptySet();
+        } else {
+            return Collections.unmodifiableSet( terms );
+        }
+    }
+
     /**
      * Create a relashionship parent to child between two OntologyTerm.
      *
@@ -127,7 +171,7 @@ public class OntologyAccessImpl implements OntologyAccess, Serializable {
     }
 
     /**
-     * Remove the Root cache from memory.<br/> That method should be called
+     * Remove the Root cache and the reachability index from memory.<br/> That method should be called
      * every time the collection of OntologyTerm is altered.
      */
     private void flushRootsCache() {
@@ -136,6 +180,7 @@ public class OntologyAccessImpl implements OntologyAccess, Serializable {
             roots.clear();
             roots = null;
         }
+        closure = null;
     }
 
     /**
@@ -239,40 +284,109 @@ public class OntologyAccessImpl implements OntologyAccess, Serializable {
     }
 
     public Set<OntologyTermI> getAllParents( OntologyTermI term ) {
-        Set<OntologyTermI> parents = new HashSet<>();
-        getAllParents( term, parents );
-        return parents;
+        final Closure c = getClosure();
+        final Integer t = c.ordinals.get( term );
+        return ( t == null ) ? Collections.emptySet() : new TermSet( c, c.index.ancestors( t ) );
     }
 
-    private void getAllParents( OntologyTermI term, Set<OntologyTermI> parents ) {
-        final Collection<OntologyTermI> directParents = getDirectParents( term );
-        parents.addAll( directParents );
-        for ( OntologyTermI parent : directParents ) {
-            getAllParents( parent, parents );
-        }
+    public Set<OntologyTermI> getAllChildren( OntologyTermI term ) {
+        final Closure c = getClosure();
+        final Integer t = c.ordinals.get( term );
+        return ( t == null ) ? Collections.emptySet() : new TermSet( c, c.index.descendants( t ) );
     }
 
-    public Set<OntologyTermI> getAllChildren( OntologyTermI term ) {
-        Set<OntologyTermI> children = new HashSet<>();
-        getAllChildren( term, children );
-        return children;
+    public boolean isAncestor( OntologyTermI ancestor, OntologyTermI term ) {
+        final Closure c = getClosure();
+        final Integer a = c.ordinals.get( ancestor );
+        final Integer t = c.ordinals.get( term );
+        return a != null && t != null && c.index.isAncestor( a, t );
     }
 
-    private void getAllChildren( OntologyTermI term, Set<OntologyTermI> children ) {
-        getAllChildren( "", term, children, new HashSet(512) );
+    private Closure getClosure() {
+        Closure c = closure;
+        if ( c == null ) {
+            synchronized ( this ) {
+                c = closure;
+                if ( c == null ) {
+                    c = new Closure( id2ontologyTerm.values(), parents );
+                    closure = c;
+                    log.debug( "Built the reachability index of " + name + " (" + c.terms.length + " terms)" );
+                }
+            }
+        }
+        return c;
     }
 
-    private void getAllChildren( String prefix, OntologyTermI term, Set<OntologyTermI> children,
-                                 Set<String> traversedChildren )
-    {
-        if( traversedChildren.contains( term.getTermAccession() ) ) {
-            return;
+    /*
+     * Terms numbered 0..n-1 and the reachability index over these ordinals.
+     */
+    private static final class Closure {
+        final OntologyTermI[] terms;
+        final Map<OntologyTermI, Integer> ordinals;
+        final ReachabilityIndex index;
+
+        Closure( Collection<OntologyTermI> allTerms, Map<OntologyTermI, Set<OntologyTermI>> parents ) {
+            terms = allTerms.toArray( new OntologyTermI[0] );
+            ordinals = new HashMap<>( terms.length * 2 );
+            for ( int i = 0; i < terms.length; i++ ) {
+                ordinals.put( terms[i], i );
+            }
+            final int[][] adjacency = new int[terms.length][];
+            for ( int i = 0; i < terms.length; i++ ) {
+                final Set<OntologyTermI> ps = parents.get( terms[i] );
+                final int[] a = new int[( ps == null ) ? 0 : ps.size()];
+                int k = 0;
+                if ( ps != null ) {
+                    for ( OntologyTermI p : ps ) {
+                        Integer o = ordinals.get( p );
+                        if ( o != null ) a[k++] = o;
+                    }
+                }
+                adjacency[i] = ( k == a.length ) ? a : Arrays.copyOf( a, k );
+            }
+            index = new ReachabilityIndex( adjacency );
         }
-        final Collection<OntologyTermI> directChildren = getDirectChildren( term );
-        traversedChildren.add( term.getTermAccession() );
-        children.addAll( directChildren );
-        for ( OntologyTermI child : directChildren ) {
-            getAllChildren( prefix+"     ", child, children, traversedChildren );
+    }
+
+    /*
+     * Read-only set view of the terms (sorted ordinals) from the reachability index.
+     */
+    private static final class TermSet extends AbstractSet<OntologyTermI> {
+        private final Closure closure;
+        private final int[] members;
+
+        TermSet( Closure closure, int[] members ) {
+            this.closure = closure;
+            this.members = members;
+        }
+
+        @Override
+        public Iterator<OntologyTermI> iterator() {
+            return new Iterator<OntologyTermI>() {
+                private int i = 0;
+
+                public boolean hasNext() {
+                    return i < members.length;
+                }
+
+                public OntologyTermI next() {
+                    if ( i >= members.length ) {
+                        throw new NoSuchElementException();
+                    }
+                    return closure.terms[members[i++]];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return members.length;
+        }
+
+        @Override
+        public boolean contains( Object o ) {
+            final Integer t = ( o instanceof OntologyTermI ) ? closure.ordinals.get( o ) : null;
+            return t != null && Arrays.binarySearch( members, t ) >= 0;
         }
     }
 
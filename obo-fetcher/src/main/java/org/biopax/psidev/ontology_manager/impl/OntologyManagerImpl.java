@@ -8,15 +8,15 @@ import org.biopax.psidev.ontology_manager.OntologyTermI;
 import org.springframework.util.ResourceUtils;
 import org.springframework.util.StringUtils;
 
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Access to the specified bio/chem ontologies (loaded from several OBO format files).
@@ -31,20 +31,60 @@ public class OntologyManagerImpl implements OntologyManager {
   private static final Logger log = LoggerFactory.getLogger(OntologyManagerImpl.class);
   private static final String TMPDIR = System.getProperty("java.io.tmpdir");
 
+  /**
+   * Ontology config option (key suffix) that selects the OntologyAccess implementation,
+   * e.g. "GO.access=compact"; values: "default" ({@link OntologyAccessImpl}),
+   * "compact" ({@link CompactOntologyAccess}), "mapped" ({@link MappedOntologyAccess}).
+   */
+  public static final String ACCESS_OPTION = ".access";
+  public static final String ACCESS_DEFAULT = "default";
+  public static final String ACCESS_COMPACT = "compact";
+  public static final String ACCESS_MAPPED = "mapped";
+
+  /**
+   * Ontology config option (key suffix) that selects the OBO parser,
+   * e.g. "GO.loader=stream"; values: "ols" ({@link OboLoader}, default),
+   * "lean" (same, but skips the OLS paths, annotations and dbxrefs), "stream" ({@link OboStreamReader}).
+   */
+  public static final String LOADER_OPTION = ".loader";
+  public static final String LOADER_OLS = "ols";
+  public static final String LOADER_LEAN = "lean";
+  public static final String LOADER_STREAM = "stream";
+
   /**
    * The Map that holds the Ontologies.
    * The key is the ontology ID and the value is an ontology implementing the OntologyAccess interface.
    */
-  private Map<String, OntologyAccess> ontologyMap = new HashMap<>();
+  private Map<String, OntologyAccess> ontologyMap = new ConcurrentHashMap<>();
+
+  /**
+   * Accession namespace (upper case prefix before the colon, e.g. "GO", "MI", "MOD";
+   * or empty string if there's no colon) to the IDs of ontologies having such terms.
+   * It's updated when an ontology is put (terms added to it later are not routed).
+   */
+  private Map<String, Set<String>> prefixMap = new ConcurrentHashMap<>();
 
   public OntologyManagerImpl() {
   }
 
-  public void putOntology( String ontologyID, OntologyAccess ontologyAccess ) {
+  public synchronized void putOntology( String ontologyID, OntologyAccess ontologyAccess ) {
     if ( ontologyMap.containsKey( ontologyID ) ) {
       log.warn( "OntologyAccess with id='" + ontologyID + "' already exists; overwriting" );
+      for ( Set<String> ids : prefixMap.values() ) {
+        ids.remove( ontologyID );
+      }
     }
     ontologyMap.put( ontologyID, ontologyAccess );
+    for ( OntologyTermI term : ontologyAccess.getOntologyTerms() ) {
+      prefixMap.computeIfAbsent( prefix( term.getTermAccession() ), k -> new CopyOnWriteArraySet<>() )
+        .add( ontologyID );
+    }
+  }
+
+  // accession namespace (routing key)
+  private static String prefix( String acc ) {
+    int pos = acc.indexOf( ':' );
+    return ( pos > 0 ) ? acc.substring( 0, pos ).toUpperCase( Locale.ROOT ) : "";
   }
 
   public Set<String> getOntologyIDs() {
@@ -59,56 +99,141 @@ public class OntologyManagerImpl implements OntologyManager {
     return ontologyMap.containsKey( ontologyID );
   }
 
-  public synchronized void loadOntologies( Properties config )
+  public void loadOntologies( Properties config )
     throws OntologyLoaderException
   {
-    if ( config != null && !config.isEmpty()) {
-      for ( Object ontId : config.keySet() ) {
-        String key = (String) ontId;
-        String resource = config.getProperty(key);
-        try {
-          log.info( "Loading ontology: " + key + ", " + resource);
-          OntologyAccess oa = fetchOntology( key, resource);
-          putOntology(key, oa);
-        } catch ( Throwable e ) {
-          throw new OntologyLoaderException("Failed fetching ontology " + key + " from " + resource, e);
-        }
-      }
-    } else {
+    await( loadOntologiesAsync( config ) );
+  }
+
+  public Map<String, CompletableFuture<OntologyAccess>> loadOntologiesAsync( Properties config )
+    throws OntologyLoaderException
+  {
+    if ( config == null || config.isEmpty() ) {
       throw new OntologyLoaderException("OntologyAccess config map is missing or empty");
     }
+
+    final List<String> ontologyIDs = new ArrayList<>();
+    for ( Object ontId : config.keySet() ) {
+      String key = (String) ontId;
+      if ( key.indexOf( '.' ) < 0 ) { // otherwise, it's an option, e.g. "GO.access"
+        ontologyIDs.add( key );
+      }
+    }
+
+    // the ontologies are independent; the pool threads end when all are loaded
+    final int threads = Math.max( 1, Math.min( ontologyIDs.size(), Runtime.getRuntime().availableProcessors() ) );
+    final AtomicInteger count = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool( threads, r -> {
+      Thread t = new Thread( r, "ontology-loader-" + count.incrementAndGet() );
+      t.setDaemon( true );
+      return t;
+    } );
+    final Map<String, CompletableFuture<OntologyAccess>> loading = new LinkedHashMap<>();
+    try {
+      for ( String key : ontologyIDs ) {
+        final String resource = config.getProperty(key);
+        final String access = config.getProperty(key + ACCESS_OPTION, ACCESS_DEFAULT).trim();
+        final String loader = config.getProperty(key + LOADER_OPTION, LOADER_OLS).trim();
+        loading.put( key, CompletableFuture.supplyAsync( () -> {
+          try {
+            log.info( "Loading ontology: " + key + ", " + resource + ", access: " + access + ", loader: " + loader);
+            OntologyAccess oa = fetchOntology( key, resource, access, loader);
+            putOntology(key, oa);
+            return oa;
+          } catch ( Throwable e ) {
+            throw new CompletionException(
+              new OntologyLoaderException("Failed fetching ontology " + key + " from " + resource, e) );
+          }
+        }, executor ) );
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    return Collections.unmodifiableMap( loading );
   }
 
-  private synchronized OntologyAccess fetchOntology( String ontologyID, String resource) throws Exception {
+  /**
+   * Waits until all the ontologies are loaded.
+   *
+   * @param loading ontology ID to the future (see {@link #loadOntologiesAsync(Properties)})
+   * @throws OntologyLoaderException when any ontology failed to load
+   *         (the first failure is the cause, the others are suppressed)
+   */
+  public static void await( Map<String, CompletableFuture<OntologyAccess>> loading )
+    throws OntologyLoaderException
+  {
+    final List<String> failed = new ArrayList<>();
+    final List<Throwable> errors = new ArrayList<>();
+    for ( Map.Entry<String, CompletableFuture<OntologyAccess>> entry : loading.entrySet() ) {
+      try {
+        entry.getValue().join();
+      } catch ( CompletionException e ) {
+        failed.add( entry.getKey() );
+        errors.add( ( e.getCause() != null ) ? e.getCause() : e );
+      } catch ( CancellationException e ) {
+        failed.add( entry.getKey() );
+        errors.add( e );
+      }
+    }
+
+    if ( !failed.isEmpty() ) {
+      OntologyLoaderException e = new OntologyLoaderException( "Failed to load ontologies: " + failed, errors.get( 0 ) );
+      for ( Throwable t : errors.subList( 1, errors.size() ) ) {
+        e.addSuppressed( t );
+      }
+      throw e;
+    }
+  }
+
+  private OntologyAccess fetchOntology( String ontologyID, String resource, String access, String loader)
+    throws Exception
+  {
     OntologyAccess oa = null; // to make
 
-    final Path serialized = Paths.get(TMPDIR,ontologyID + "_" + resource.hashCode() + ".bin");
-    //deserialize if the cache file exists
-    if(Files.exists(serialized)) {
+    OntologyAccess target = newOntologyAccess( ontologyID, access );
+    if ( !LOADER_OLS.equalsIgnoreCase( loader ) && !LOADER_LEAN.equalsIgnoreCase( loader )
+      && !LOADER_STREAM.equalsIgnoreCase( loader ) ) {
+      throw new OntologyLoaderException( "Unknown " + ontologyID + LOADER_OPTION + " value: " + loader );
+    }
+    final boolean mapped = ACCESS_MAPPED.equalsIgnoreCase( access );
+    final URL url = ResourceUtils.getURL(resource);
+    final byte[] sourceHash = OntologySnapshot.digest(url);
+
+    // the cache file is a binary snapshot tied to the source content (rejected if stale or corrupt)
+    // (the parsers differ a little, so they don't share the cache; the lean one gets the same terms as ols)
+    final String suffix = ( LOADER_STREAM.equalsIgnoreCase( loader ) ) ? "_" + loader.toLowerCase( Locale.ROOT ) : "";
+    final Path snapshot = Paths.get(TMPDIR, ontologyID + "_" + resource.hashCode() + suffix + OntologySnapshot.EXTENSION);
+    if(Files.exists(snapshot)) {
       try {
-        oa = (OntologyAccess) new ObjectInputStream(Files.newInputStream(serialized, StandardOpenOption.READ))
-          .readObject();
-        log.info( "Loaded ontology " + ontologyID + " from cache " + serialized );
+        OntologySnapshot s = OntologySnapshot.open(snapshot, sourceHash);
+        oa = (mapped) ? new MappedOntologyAccess(s) : s.load(target);
+        log.info( "Loaded ontology " + ontologyID + " from cache " + snapshot );
+      } catch (IOException e) {
+        log.info("Cannot use the cache " + snapshot + ": " + e.getMessage());
       } catch (Exception e) {
-        log.error("Failed to deserialize ontology from cache " + serialized, e);
+        log.error("Failed to load ontology from cache " + snapshot, e);
+        target = newOntologyAccess( ontologyID, access ); // (discard a partially loaded one)
       }
     }
 
     if(oa == null) {// load the ontology from the resource
       try {
-        URL url = ResourceUtils.getURL(resource);
-        oa = new OboLoader().parseOboFile(url, ontologyID);
+        oa = ( LOADER_STREAM.equalsIgnoreCase( loader ) )
+          ? new OboStreamReader().read(url, ontologyID, target)
+          : new OboLoader( LOADER_LEAN.equalsIgnoreCase( loader ) ).parseOboFile(url, ontologyID, target);
         oa.setName(ontologyID);
         log.info( "Loaded ontology " + ontologyID + " from " + resource );
-        // serialize (reusable cache file)
+        // save the snapshot (reusable cache file)
         try {
-          new ObjectOutputStream(Files.newOutputStream(serialized,
-            StandardOpenOption.CREATE,
-            StandardOpenOption.TRUNCATE_EXISTING)
-          ).writeObject(oa);
-          log.info( "Serialized " + ontologyID + " to a cache file " + serialized);
+          OntologySnapshot.write(oa, snapshot, sourceHash);
+          log.info( "Saved " + ontologyID + " to a cache file " + snapshot);
+          if(mapped) {
+            oa = new MappedOntologyAccess(OntologySnapshot.open(snapshot, sourceHash));
+          }
         } catch (Exception e) {
-          log.error("Failed to serialize " + ontologyID + " to: " + serialized, e);
+          log.error("Failed to save " + ontologyID + " to: " + snapshot
+            + (mapped ? "; using the in-memory (compact) ontology instead" : ""), e);
         }
       } catch (Exception e) {
         throw new OntologyLoaderException("OBO file loader failed", e);
@@ -118,6 +243,18 @@ public class OntologyManagerImpl implements OntologyManager {
     return oa;
   }
 
+  private static OntologyAccess newOntologyAccess( String ontologyID, String access )
+    throws OntologyLoaderException
+  {
+    if ( ACCESS_COMPACT.equalsIgnoreCase( access ) || ACCESS_MAPPED.equalsIgnoreCase( access ) ) {
+      return new CompactOntologyAccess(); // (a mapped one is made from the snapshot of this)
+    } else if ( ACCESS_DEFAULT.equalsIgnoreCase( access ) ) {
+      return new OntologyAccessImpl();
+    } else {
+      throw new OntologyLoaderException( "Unknown " + ontologyID + ACCESS_OPTION + " value: " + access );
+    }
+  }
+
   public Set<OntologyTermI> searchTermByName(String name) {
     return searchTermByName(name, null);
   }
@@ -126,27 +263,14 @@ public class OntologyManagerImpl implements OntologyManager {
     Set<OntologyTermI> found  = new HashSet<>();
     assert name!=null : "searchTermByName: null arg.";
 
-    Set<String> ontologyIDs = new HashSet<>(getOntologyIDs());
-    if(ontologies != null && !ontologies.isEmpty())
-      ontologyIDs.retainAll(ontologies);
+    Collection<String> ontologyIDs = (ontologies != null && !ontologies.isEmpty())
+      ? ontologies : getOntologyIDs();
 
+    // each ontology has the (case-insensitive) name/synonym index
     for(String ontologyId: ontologyIDs) {
       OntologyAccess oa = getOntology(ontologyId);
-      for(OntologyTermI term : oa.getOntologyTerms()) {
-        String prefName = term.getPreferredName();
-        if(prefName == null) {
-          log.error("searchTermByName: null preferred name for term "
-                      + term.getTermAccession() + " in " + ontologyId + "; report to authors.");
-        } else if(name.equalsIgnoreCase(prefName)) {
-          found.add(term);
-        } else {
-          for(String syn : term.getNameSynonyms()) {
-            if(syn.equalsIgnoreCase(name)) {
-              found.add(term);
-            }
-          }
-        }
-      }
+      if(oa != null)
+        found.addAll(oa.getTermsByName(name));
     }
 
     return found;
@@ -154,11 +278,17 @@ public class OntologyManagerImpl implements OntologyManager {
 
   public OntologyTermI findTermByAccession(String acc) {
     OntologyTermI term = null;
+    if(acc == null)
+      return null;
 
-    for(String ontologyId : getOntologyIDs()) {
-      term = getOntology(ontologyId).getTermForAccession(acc);
-      if(term != null)
-        break;
+    // only the ontologies that have terms in the accession's namespace (usually one)
+    Set<String> ontologyIDs = prefixMap.get(prefix(acc));
+    if(ontologyIDs != null) {
+      for (String ontologyId : ontologyIDs) {
+        term = getOntology(ontologyId).getTermForAccession(acc);
+        if (term != null)
+          break;
+      }
     }
 
     return term;
@@ -225,8 +355,13 @@ public class OntologyManagerImpl implements OntologyManager {
   }
 
   public boolean isChild(String parentUrn, String urn) {
-    return getAllParents(urn).contains(parentUrn)
-             || getAllChildren(parentUrn).contains(urn);
+    OntologyTermI parent = getTermByUri(parentUrn);
+    OntologyTermI term = getTermByUri(urn);
+    if(parent == null || term == null || parent.getOntologyId() == null
+      || !parent.getOntologyId().equals(term.getOntologyId())) {
+      return false;
+    }
+    return getOntology(term.getOntologyId()).isAncestor(parent, term);
   }
 
   public OntologyTermI findTerm(OntologyAccess ontologyAccess, String term)
@@ -0,0 +1,487 @@
+package org.biopax.psidev.ontology_manager.impl;
+
+import org.biopax.psidev.ontology_manager.OntologyAccess;
+import org.biopax.psidev.ontology_manager.OntologyTermI;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of an ontology - the cache format (replaces Java serialization of OntologyAccess objects).
+ *
+ * The file is memory-mapped and read in place: strings are decoded, and arrays read, only when asked for.
+ * It is versioned, checksummed, and tied to the content hash of the OBO source it was made from,
+ * so that a stale, corrupt, or incompatible snapshot is rejected (and the ontology re-parsed).
+ *
+ * Layout (big-endian ints; "int[n]" is n consecutive ints):
+ * <pre>
+ * header: magic, version, SHA-256 of the source (32 bytes), CRC32 of the body (long), body length
+ * body:
+ *   string table: n, int[n+1] offsets, UTF-8 bytes (all the distinct strings)
+ *   ontology name (string id, or -1)
+ *   terms: n, int[n] accessions, int[n] names, int[n] ontology IDs (string ids),
+ *          int[n+1] synonyms start, int[] synonyms (string ids)
+ *   obsolete terms: m, int[m] (sorted term ordinals)
+ *   parents: int[n+1] start, int[] parents; children: int[n+1] start, int[] children
+ *   accession index: int[n] (term ordinals sorted by accession)
+ *   name index: k, int[k] keys (lower case names and synonyms, sorted), int[k] term ordinals
+ * </pre>
+ */
+final class OntologySnapshot {
+
+    static final String EXTENSION = ".snapshot";
+
+    private static final int MAGIC = 0x4250584F; // "BPXO"
+    private static final int VERSION = 3; // 2 - unescaped term names, 3 - equalsIgnoreCase name keys
+    private static final int HASH_LENGTH = 32;
+    private static final int HEADER_LENGTH = 4 + 4 + HASH_LENGTH + 8 + 4;
+    private static final int[] EMPTY = new int[0];
+
+    private final ByteBuffer buf;
+    private final int size;
+    private final String name;
+
+    // section positions
+    private final int stringOffsets;
+    private final int stringBytes;
+    private final int termAccessions;
+    private final int termNames;
+    private final int termOntologies;
+    private final int synonymStart;
+    private final int synonyms;
+    private final int obsoleteCount;
+    private final int obsolete;
+    private final int parentStart;
+    private final int parents;
+    private final int childStart;
+    private final int children;
+    private final int accessionIndex;
+    private final int keyCount;
+    private final int keys;
+    private final int keyTerms;
+
+    private OntologySnapshot( ByteBuffer buf ) {
+        this.buf = buf;
+        int pos = HEADER_LENGTH;
+
+        final int stringCount = buf.getInt( pos );
+        stringOffsets = pos + 4;
+        stringBytes = stringOffsets + 4 * ( stringCount + 1 );
+        pos = stringBytes + buf.getInt( stringOffsets + 4 * stringCount );
+
+        final int nameId = buf.getInt( pos );
+        pos += 4;
+
+        size = buf.getInt( pos );
+        termAccessions = pos + 4;
+        termNames = termAccessions + 4 * size;
+        termOntologies = termNames + 4 * size;
+        synonymStart = termOntologies + 4 * size;
+        synonyms = synonymStart + 4 * ( size + 1 );
+        pos = synonyms + 4 * buf.getInt( synonymStart + 4 * size );
+
+        obsoleteCount = buf.getInt( pos );
+        obsolete = pos + 4;
+        pos = obsolete + 4 * obsoleteCount;
+
+        parentStart = pos;
+        parents = parentStart + 4 * ( size + 1 );
+        pos = parents + 4 * buf.getInt( parentStart + 4 * size );
+
+        childStart = pos;
+        children = childStart + 4 * ( size + 1 );
+        pos = children + 4 * buf.getInt( childStart + 4 * size );
+
+        accessionIndex = pos;
+        pos = accessionIndex + 4 * size;
+
+        keyCount = buf.getInt( pos );
+        keys = pos + 4;
+        keyTerms = keys + 4 * keyCount;
+        if ( keyTerms + 4 * keyCount != buf.limit() ) {
+            throw new IllegalStateException( "Inconsistent snapshot layout" );
+        }
+
+        name = string( nameId );
+    }
+
+    /**
+     * Opens (memory-maps) the snapshot file and checks it.
+     *
+     * @param file       snapshot file
+     * @param sourceHash the content hash of the OBO source (see {@link #digest(URL)})
+     * @return the snapshot
+     * @throws IOException when the file cannot be read, or it is of another version,
+     *                     made from a different source, or corrupt.
+     */
+    static OntologySnapshot open( Path file, byte[] sourceHash ) throws IOException {
+        final ByteBuffer buf;
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+            if ( channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE ) {
+                throw new IOException( "Not an ontology snapshot: " + file );
+            }
+            buf = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        }
+
+        if ( buf.getInt( 0 ) != MAGIC ) {
+            throw new IOException( "Not an ontology snapshot: " + file );
+        }
+        if ( buf.getInt( 4 ) != VERSION ) {
+            throw new IOException( "Unsupported snapshot version " + buf.getInt( 4 ) + ": " + file );
+        }
+        byte[] hash = new byte[HASH_LENGTH];
+        buf.get( 8, hash );
+        if ( !Arrays.equals( hash, sourceHash ) ) {
+            throw new IOException( "Snapshot is out of date (the source has changed): " + file );
+        }
+        final long checksum = buf.getLong( 8 + HASH_LENGTH );
+        final int length = buf.getInt( 16 + HASH_LENGTH );
+        if ( length != buf.capacity() - HEADER_LENGTH ) {
+            throw new IOException( "Truncated snapshot: " + file );
+        }
+        CRC32 crc = new CRC32();
+        crc.update( buf.duplicate().position( HEADER_LENGTH ) );
+        if ( crc.getValue() != checksum ) {
+            throw new IOException( "Snapshot checksum mismatch: " + file );
+        }
+
+        try {
+            return new OntologySnapshot( buf );
+        } catch ( RuntimeException e ) {
+            throw new IOException( "Corrupt snapshot: " + file, e );
+        }
+    }
+
+    /**
+     * Writes the ontology snapshot
+     * (to a temporary file first, then moves it in place, so that readers never see a partial file).
+     *
+     * @param oa         ontology
+     * @param file       snapshot file
+     * @param sourceHash the content hash of the OBO source (see {@link #digest(URL)})
+     * @throws IOException when failed to write
+     */
+    static void write( OntologyAccess oa, Path file, byte[] sourceHash ) throws IOException {
+        if ( sourceHash.length != HASH_LENGTH ) {
+            throw new IllegalArgumentException( "Expected a SHA-256 hash" );
+        }
+
+        // terms (by accession, the last added one wins - as in the ontology access)
+        final Map<String, Integer> ordinals = new LinkedHashMap<>();
+        for ( OntologyTermI term : oa.getOntologyTerms() ) {
+            ordinals.putIfAbsent( term.getTermAccession(), ordinals.size() );
+        }
+        final int n = ordinals.size();
+        final OntologyTermI[] terms = new OntologyTermI[n];
+        for ( Map.Entry<String, Integer> e : ordinals.entrySet() ) {
+            terms[e.getValue()] = oa.getTermForAccession( e.getKey() );
+        }
+
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        final int nameId = id( strings, oa.getName() );
+        final int[] accs = new int[n];
+        final int[] names = new int[n];
+        final int[] onts = new int[n];
+        final int[] synStart = new int[n + 1];
+        final List<Integer> syns = new ArrayList<>();
+        final List<Object[]> nameKeys = new ArrayList<>();
+        for ( int t = 0; t < n; t++ ) {
+            accs[t] = id( strings, terms[t].getTermAccession() );
+            names[t] = id( strings, terms[t].getPreferredName() );
+            onts[t] = id( strings, terms[t].getOntologyId() );
+            if ( terms[t].getPreferredName() != null ) {
+                nameKeys.add( new Object[]{ OntologyAccessImpl.nameKey( terms[t].getPreferredName() ), t } );
+            }
+            for ( String synonym : terms[t].getNameSynonyms() ) {
+                syns.add( id( strings, synonym ) );
+                if ( synonym != null ) {
+                    nameKeys.add( new Object[]{ OntologyAccessImpl.nameKey( synonym ), t } );
+                }
+            }
+            synStart[t + 1] = syns.size();
+        }
+
+        final int[] obsoletes = oa.getObsoleteTerms().stream()
+          .map( term -> ordinals.get( term.getTermAccession() ) )
+          .filter( Objects::nonNull ).mapToInt( Integer::intValue ).distinct().sorted().toArray();
+
+        final int[][] up = new int[n][];
+        final int[][] down = new int[n][];
+        for ( int t = 0; t < n; t++ ) {
+            up[t] = ordinals( oa.getDirectParents( terms[t] ), ordinals );
+            down[t] = ordinals( oa.getDirectChildren( terms[t] ), ordinals );
+        }
+
+        final Integer[] byAccession = new Integer[n];
+        for ( int t = 0; t < n; t++ ) byAccession[t] = t;
+        Arrays.sort( byAccession, Comparator.comparing( t -> terms[t].getTermAccession() ) );
+
+        nameKeys.sort( Comparator.comparing( ( Object[] k ) -> (String) k[0] )
+          .thenComparingInt( k -> (Integer) k[1] ) );
+        final int[] keyIds = new int[nameKeys.size()];
+        for ( int i = 0; i < keyIds.length; i++ ) {
+            keyIds[i] = id( strings, (String) nameKeys.get( i )[0] );
+        }
+
+        // the body
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream( 1 << 16 );
+        DataOutputStream out = new DataOutputStream( bytes );
+        out.writeInt( strings.size() );
+        List<byte[]> encoded = new ArrayList<>( strings.size() );
+        int offset = 0;
+        out.writeInt( offset );
+        for ( String s : strings.keySet() ) {
+            byte[] b = s.getBytes( StandardCharsets.UTF_8 );
+            encoded.add( b );
+            offset += b.length;
+            out.writeInt( offset );
+        }
+        for ( byte[] b : encoded ) {
+            out.write( b );
+        }
+        out.writeInt( nameId );
+        out.writeInt( n );
+        writeInts( out, accs );
+        writeInts( out, names );
+        writeInts( out, onts );
+        writeInts( out, synStart );
+        for ( int s : syns ) out.writeInt( s );
+        out.writeInt( obsoletes.length );
+        writeInts( out, obsoletes );
+        writeCsr( out, up );
+        writeCsr( out, down );
+        for ( int t : byAccession ) out.writeInt( t );
+        out.writeInt( keyIds.length );
+        writeInts( out, keyIds );
+        for ( Object[] k : nameKeys ) out.writeInt( (Integer) k[1] );
+        out.flush();
+        final byte[] body = bytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update( body );
+        ByteBuffer header = ByteBuffer.allocate( HEADER_LENGTH );
+        header.putInt( MAGIC ).putInt( VERSION ).put( sourceHash ).putLong( crc.getValue() ).putInt( body.length );
+
+        Path tmp = Files.createTempFile( file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp" );
+        try {
+            try ( OutputStream os = Files.newOutputStream( tmp ) ) {
+                os.write( header.array() );
+                os.write( body );
+            }
+            try {
+                Files.move( tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            } catch ( AtomicMoveNotSupportedException e ) {
+                Files.move( tmp, file, StandardCopyOption.REPLACE_EXISTING );
+            }
+        } finally {
+            Files.deleteIfExists( tmp );
+        }
+    }
+
+    /**
+     * Content hash (SHA-256) of the OBO resource.
+     *
+     * Local resources (file, jar, classpath) are read and hashed;
+     * a remote one (e.g., http) is identified by its URL only, not to download it every time.
+     *
+     * @param url the OBO resource
+     * @return hash
+     * @throws IOException when failed to read the resource
+     */
+    static byte[] digest( URL url ) throws IOException {
+        final MessageDigest md;
+        try {
+            md = MessageDigest.getInstance( "SHA-256" );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        }
+        String protocol = url.getProtocol();
+        if ( "file".equals( protocol ) || "jar".equals( protocol ) || protocol.startsWith( "vfs" ) ) {
+            try ( InputStream in = new DigestInputStream( url.openStream(), md ) ) {
+                byte[] b = new byte[1 << 16];
+                while ( in.read( b ) != -1 ) ; // reads and hashes
+            }
+            return md.digest();
+        } else {
+            return md.digest( url.toString().getBytes( StandardCharsets.UTF_8 ) );
+        }
+    }
+
+    /**
+     * Adds all the terms, links, and obsolete terms to the ontology access object.
+     *
+     * @param target an empty ontology access object
+     * @return the ontology access object
+     */
+    OntologyAccess load( OntologyAccess target ) {
+        target.setName( name );
+        final OntologyTermI[] terms = new OntologyTermI[size];
+        for ( int t = 0; t < size; t++ ) {
+            OntologyTermI term = new OntologyTermImpl( ontologyId( t ), accession( t ), name( t ) );
+            term.getNameSynonyms().addAll( synonyms( t ) );
+            target.addTerm( term );
+            terms[t] = term;
+        }
+        for ( int i = 0; i < obsoleteCount; i++ ) {
+            target.addObsoleteTerm( terms[buf.getInt( obsolete + 4 * i )] );
+        }
+        for ( int t = 0; t < size; t++ ) {
+            for ( int p : parents( t ) ) {
+                target.addLink( accession( p ), accession( t ) );
+            }
+        }
+        return target;
+    }
+
+    /**
+     * @return ontology name
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of terms
+     */
+    int size() {
+        return size;
+    }
+
+    String accession( int term ) {
+        return string( buf.getInt( termAccessions + 4 * term ) );
+    }
+
+    String name( int term ) {
+        return string( buf.getInt( termNames + 4 * term ) );
+    }
+
+    String ontologyId( int term ) {
+        return string( buf.getInt( termOntologies + 4 * term ) );
+    }
+
+    List<String> synonyms( int term ) {
+        final int from = buf.getInt( synonymStart + 4 * term );
+        final int to = buf.getInt( synonymStart + 4 * ( term + 1 ) );
+        List<String> list = new ArrayList<>( to - from );
+        for ( int i = from; i < to; i++ ) {
+            list.add( string( buf.getInt( synonyms + 4 * i ) ) );
+        }
+        return list;
+    }
+
+    boolean isObsolete( int term ) {
+        int lo = 0, hi = obsoleteCount - 1;
+        while ( lo <= hi ) {
+            int mid = ( lo + hi ) >>> 1;
+            int v = buf.getInt( obsolete + 4 * mid );
+            if ( v < term ) lo = mid + 1;
+            else if ( v > term ) hi = mid - 1;
+            else return true;
+        }
+        return false;
+    }
+
+    int[] obsoleteTerms() {
+        return ints( obsolete, obsoleteCount );
+    }
+
+    int[] parents( int term ) {
+        return range( parentStart, parents, term );
+    }
+
+    int[] children( int term ) {
+        return range( childStart, children, term );
+    }
+
+    /**
+     * @param accession term accession
+     * @return term ordinal, or -1 if not found
+     */
+    int ordinal( String accession ) {
+        int lo = 0, hi = size - 1;
+        while ( lo <= hi ) {
+            int mid = ( lo + hi ) >>> 1;
+            int t = buf.getInt( accessionIndex + 4 * mid );
+            int c = accession( t ).compareTo( accession );
+            if ( c < 0 ) lo = mid + 1;
+            else if ( c > 0 ) hi = mid - 1;
+            else return t;
+        }
+        return -1;
+    }
+
+    /**
+     * @param name term name or synonym (case-insensitive)
+     * @return ordinals of the matching terms
+     */
+    int[] termsByName( String name ) {
+        final String key = OntologyAccessImpl.nameKey( name );
+        // the first key not less than the name
+        int lo = 0, hi = keyCount;
+        while ( lo < hi ) {
+            int mid = ( lo + hi ) >>> 1;
+            if ( string( buf.getInt( keys + 4 * mid ) ).compareTo( key ) < 0 ) lo = mid + 1;
+            else hi = mid;
+        }
+        int to = lo;
+        while ( to < keyCount && string( buf.getInt( keys + 4 * to ) ).equals( key ) ) to++;
+        return ( to == lo ) ? EMPTY : ints( keyTerms + 4 * lo, to - lo );
+    }
+
+    private String string( int id ) {
+        if ( id < 0 ) {
+            return null;
+        }
+        final int from = buf.getInt( stringOffsets + 4 * id );
+        final int to = buf.getInt( stringOffsets + 4 * ( id + 1 ) );
+        byte[] b = new byte[to - from];
+        buf.get( stringBytes + from, b );
+        return new String( b, StandardCharsets.UTF_8 );
+    }
+
+    private int[] range( int start, int values, int term ) {
+        final int from = buf.getInt( start + 4 * term );
+        final int to = buf.getInt( start + 4 * ( term + 1 ) );
+        return ( to == from ) ? EMPTY : ints( values + 4 * from, to - from );
+    }
+
+    private int[] ints( int pos, int n ) {
+        int[] a = new int[n];
+        for ( int i = 0; i < n; i++ ) {
+            a[i] = buf.getInt( pos + 4 * i );
+        }
+        return a;
+    }
+
+    private static int id( Map<String, Integer> strings, String s ) {
+        return ( s == null ) ? -1 : strings.computeIfAbsent( s, k -> strings.size() );
+    }
+
+    private static int[] ordinals( Collection<OntologyTermI> terms, Map<String, Integer> ordinals ) {
+        return terms.stream().map( term -> ordinals.get( term.getTermAccession() ) )
+          .filter( Objects::nonNull ).mapToInt( Integer::intValue ).distinct().sorted().toArray();
+    }
+
+    private static void writeInts( DataOutputStream out, int[] a ) throws IOException {
+        for ( int v : a ) out.writeInt( v );
+    }
+
+    private static void writeCsr( DataOutputStream out, int[][] lists ) throws IOException {
+        int offset = 0;
+        out.writeInt( offset );
+        for ( int[] l : lists ) {
+            offset += l.length;
+            out.writeInt( offset );
+        }
+        for ( int[] l : lists ) writeInts( out, l );
+    }
+}
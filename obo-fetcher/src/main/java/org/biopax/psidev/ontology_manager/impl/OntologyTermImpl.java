@@ -88,14 +88,18 @@ public class OntologyTermImpl implements OntologyTermI, Serializable {
         return sb.toString();
     }
 
+    /**
+     * Terms are equal if they have the same accession
+     * (other implementations of the term interface are compared as well).
+     */
     @Override
     public boolean equals( Object o ) {
         if ( this == o ) return true;
-        if ( o == null || getClass() != o.getClass() ) return false;
+        if ( !( o instanceof OntologyTermI ) ) return false;
 
-        OntologyTermImpl that = ( OntologyTermImpl ) o;
+        OntologyTermI that = ( OntologyTermI ) o;
 
-        if ( !acc.equals( that.acc ) ) return false;
+        if ( !acc.equals( that.getTermAccession() ) ) return false;
 
         return true;
     }
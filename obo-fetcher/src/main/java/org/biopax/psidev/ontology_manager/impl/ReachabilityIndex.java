@@ -0,0 +1,105 @@
+package org.biopax.psidev.ontology_manager.impl;
+
+import java.util.Arrays;
+
+/**
+ * Transitive closure of an ontology graph (a DAG, usually)
+ * over dense term ordinals 0..n-1: for each term, the sorted arrays
+ * of all its ancestors and all its descendants.
+ *
+ * Built once (in O(size of the closure)), it answers
+ * "is A an ancestor of B" by a binary search in the B's ancestors
+ * (there are only a few dozens of them even in GO), and
+ * lets iterate over all descendants without traversing the graph.
+ * Cycles, if any, are tolerated (a term on a cycle is then its own ancestor).
+ */
+final class ReachabilityIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int[][] ancestors;
+    private final int[][] descendants;
+
+    /**
+     * Builds the index.
+     *
+     * @param parents direct parents' ordinals of each term (by the term's ordinal)
+     */
+    ReachabilityIndex( int[][] parents ) {
+        final int n = parents.length;
+        ancestors = new int[n][];
+
+        // collect the ancestors of each term by walking up the graph
+        // (the marks array is reused: a term is visited if mark == current ordinal + 1)
+        final int[] marks = new int[n];
+        int[] queue = new int[16];
+        for ( int t = 0; t < n; t++ ) {
+            final int stamp = t + 1;
+            int size = 0;
+            for ( int p : parents[t] ) {
+                if ( marks[p] != stamp ) {
+                    marks[p] = stamp;
+                    if ( size == queue.length ) queue = Arrays.copyOf( queue, size * 2 );
+                    queue[size++] = p;
+                }
+            }
+            for ( int head = 0; head < size; head++ ) {
+                for ( int p : parents[queue[head]] ) {
+                    if ( marks[p] != stamp ) {
+                        marks[p] = stamp;
+                        if ( size == queue.length ) queue = Arrays.copyOf( queue, size * 2 );
+                        queue[size++] = p;
+                    }
+                }
+            }
+            if ( size == 0 ) {
+                ancestors[t] = EMPTY;
+            } else {
+                int[] a = Arrays.copyOf( queue, size );
+                Arrays.sort( a );
+                ancestors[t] = a;
+            }
+        }
+
+        // invert (descendants come sorted, for terms are visited in ascending order)
+        final int[] counts = new int[n];
+        for ( int[] a : ancestors ) {
+            for ( int p : a ) counts[p]++;
+        }
+        descendants = new int[n][];
+        for ( int t = 0; t < n; t++ ) {
+            descendants[t] = ( counts[t] == 0 ) ? EMPTY : new int[counts[t]];
+            counts[t] = 0;
+        }
+        for ( int t = 0; t < n; t++ ) {
+            for ( int p : ancestors[t] ) {
+                descendants[p][counts[p]++] = t;
+            }
+        }
+    }
+
+    /**
+     * @param ancestor ordinal of the ancestor term
+     * @param term     ordinal of the term
+     * @return true if there is a path from the term up to the ancestor
+     */
+    boolean isAncestor( int ancestor, int term ) {
+        return Arrays.binarySearch( ancestors[term], ancestor ) >= 0;
+    }
+
+    /**
+     * @param term term ordinal
+     * @return sorted ordinals of all the term's ancestors (must not be modified)
+     */
+    int[] ancestors( int term ) {
+        return ancestors[term];
+    }
+
+    /**
+     * @param term term ordinal
+     * @return sorted ordinals of all the term's descendants (must not be modified)
+     */
+    int[] descendants( int term ) {
+        return descendants[term];
+    }
+}
@@ -1,14 +1,32 @@
 import org.biopax.psidev.ontology_manager.OntologyAccess;
 import org.biopax.psidev.ontology_manager.OntologyManager;
 import org.biopax.psidev.ontology_manager.OntologyTermI;
+import org.biopax.psidev.ontology_manager.impl.CompactOntologyAccess;
+import org.biopax.psidev.ontology_manager.impl.MappedOntologyAccess;
+import org.biopax.psidev.ontology_manager.impl.OboLoader;
+import org.biopax.psidev.ontology_manager.impl.OntologyLoaderException;
 import org.biopax.psidev.ontology_manager.impl.OntologyAccessImpl;
 import org.biopax.psidev.ontology_manager.impl.OntologyManagerImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public class OntologyParserTest {
 	 
@@ -34,9 +52,270 @@ public class OntologyParserTest {
 		Assertions.assertNotNull(t);
 		//test that apostrophe is not escaped (-due to a bug in the OBO parser, part of ols-1.18)!
 		Assertions.assertTrue(t.getPreferredName().equalsIgnoreCase("O4'-phospho-L-tyrosine"));
+
+		// search by name or synonym, case-insensitive (indexed)
+		Assertions.assertTrue(oa2.getTermsByName("o4'-PHOSPHO-l-tyrosine").contains(t));
+		Assertions.assertTrue(oa2.getTermsByName("optyr").contains(t));
+		Assertions.assertTrue(manager.searchTermByName("OPTyr", Collections.singleton("MOD")).contains(t));
+		Assertions.assertTrue(manager.searchTermByName("OPTyr", Collections.singleton("MI")).isEmpty());
+		Assertions.assertTrue(manager.searchTermByName("no such term").isEmpty());
+
+		// accession lookup is routed by the prefix
+		Assertions.assertEquals(t, manager.findTermByAccession("MOD:00048"));
+		Assertions.assertEquals(t, manager.getTermByUri("mod:00048"));
+		Assertions.assertNull(manager.findTermByAccession("GO:0005654"));
+
+		// reachability (transitive closure) queries
+		OntologyTermI parent = oa2.getTermForAccession("MOD:01157");
+		OntologyTermI child = oa2.getTermForAccession("MOD:00036");
+		Assertions.assertTrue(oa2.isAncestor(parent, child));
+		Assertions.assertFalse(oa2.isAncestor(child, parent));
+		Assertions.assertTrue(oa2.getAllChildren(parent).contains(child));
+		Assertions.assertTrue(oa2.getAllParents(child).contains(parent));
+		Assertions.assertTrue(manager.isChild("MOD:01157", "MOD:00036"));
+		Assertions.assertFalse(manager.isChild("MOD:00036", "MOD:01157"));
 		
 		oa2 = manager.getOntology("MI");
 		Assertions.assertNotNull(oa2);
 		Assertions.assertTrue(oa2 instanceof OntologyAccessImpl);
 	}
+
+	@Test
+	public void compactOntologyLoading() throws Exception {
+
+		final Properties cfg = new Properties();
+		cfg.put("MOD", "classpath:test-mod.obo");
+		cfg.put("MOD.access", "compact");
+
+		OntologyManager manager = new OntologyManagerImpl();
+		manager.loadOntologies(cfg);
+
+		Assertions.assertEquals(Collections.singleton("MOD"), manager.getOntologyIDs());
+		OntologyAccess oa = manager.getOntology("MOD");
+		Assertions.assertTrue(oa instanceof CompactOntologyAccess);
+
+		OntologyTermI t = oa.getTermForAccession("MOD:00048");
+		Assertions.assertNotNull(t);
+		Assertions.assertTrue(t.getPreferredName().equalsIgnoreCase("O4'-phospho-L-tyrosine"));
+		Assertions.assertTrue(oa.getTermsByName("optyr").contains(t));
+		Assertions.assertEquals(t, manager.findTermByAccession("MOD:00048"));
+
+		OntologyTermI parent = oa.getTermForAccession("MOD:01157");
+		OntologyTermI child = oa.getTermForAccession("MOD:00036");
+		Assertions.assertTrue(oa.isAncestor(parent, child));
+		Assertions.assertFalse(oa.isAncestor(child, parent));
+		Assertions.assertTrue(oa.getAllChildren(parent).contains(child));
+		Assertions.assertTrue(manager.isChild("MOD:01157", "MOD:00036"));
+	}
+
+	@Test
+	public void streamOntologyLoading() throws Exception {
+
+		final Properties cfg = new Properties();
+		cfg.put("MI", "classpath:test-mi.obo");
+		cfg.put("MI.loader", "stream");
+		cfg.put("MOD", "classpath:test-mod.obo");
+		cfg.put("MOD.loader", "stream");
+
+		OntologyManager manager = new OntologyManagerImpl();
+		manager.loadOntologies(cfg);
+
+		OntologyAccess mod = manager.getOntology("MOD");
+		OntologyTermI t = mod.getTermForAccession("MOD:00048");
+		Assertions.assertNotNull(t);
+		Assertions.assertTrue(t.getPreferredName().equalsIgnoreCase("O4'-phospho-L-tyrosine"));
+		Assertions.assertTrue(mod.getTermsByName("optyr").contains(t));
+		Assertions.assertTrue(manager.isChild("MOD:01157", "MOD:00036"));
+		Assertions.assertFalse(mod.getObsoleteTerms().isEmpty());
+
+		// PSI-MOD terms included in the PSI-MI file are skipped
+		OntologyAccess mi = manager.getOntology("MI");
+		Assertions.assertNotNull(mi.getTermForAccession("MI:0444"));
+		Assertions.assertFalse(mi.getAllChildren(mi.getTermForAccession("MI:0444")).isEmpty());
+		Assertions.assertTrue(mi.getOntologyTerms().stream().noneMatch(term -> term.getTermAccession().startsWith("MOD:")));
+	}
+
+	@Test
+	public void leanOntologyLoading() throws Exception {
+		URL url = getClass().getResource("/test-mod.obo");
+		OntologyAccess full = new OboLoader().parseOboFile(url, "MOD");
+		OntologyAccess lean = new OboLoader(true).parseOboFile(url, "MOD");
+
+		// the same terms, synonyms, obsolete terms and hierarchy
+		Assertions.assertEquals(full.getOntologyTerms().size(), lean.getOntologyTerms().size());
+		for (OntologyTermI t : full.getOntologyTerms()) {
+			OntologyTermI l = lean.getTermForAccession(t.getTermAccession());
+			Assertions.assertNotNull(l);
+			Assertions.assertEquals(t.getPreferredName(), l.getPreferredName());
+			Assertions.assertEquals(new HashSet<>(t.getNameSynonyms()), new HashSet<>(l.getNameSynonyms()));
+			Assertions.assertEquals(full.isObsolete(t), lean.isObsolete(l));
+			Assertions.assertEquals(full.getDirectParents(t), lean.getDirectParents(l));
+		}
+	}
+
+	@Test
+	public void unescapedTermNames() throws Exception {
+		Path obo = Files.createTempFile("test-escaped_", ".obo");
+		obo.toFile().deleteOnExit();
+		Files.write(obo, ("format-version: 1.2\n\n"
+			+ "[Term]\nid: TST:0001\nname: 5&apos;-end &amp; 3&apos;-end\n"
+			+ "synonym: \"a &lt; b\" EXACT []\n").getBytes(StandardCharsets.UTF_8));
+
+		// the names are unescaped before they're indexed (or saved in the snapshot)
+		for (String access : new String[] {"default", "compact", "mapped"}) {
+			final Properties cfg = new Properties();
+			cfg.put("TST", obo.toUri().toString());
+			cfg.put("TST.loader", "stream");
+			cfg.put("TST.access", access);
+
+			OntologyManager manager = new OntologyManagerImpl();
+			manager.loadOntologies(cfg);
+			OntologyTermI t = manager.findTermByAccession("TST:0001");
+			Assertions.assertNotNull(t);
+			Assertions.assertEquals("5'-end & 3'-end", t.getPreferredName());
+			Assertions.assertEquals(Collections.singleton(t), manager.searchTermByName("5'-END & 3'-end"));
+			Assertions.assertEquals(Collections.singleton(t), manager.searchTermByName("a < b"));
+			Assertions.assertTrue(manager.searchTermByName("5&apos;-end &amp; 3&apos;-end").isEmpty());
+		}
+	}
+
+	@Test
+	public void caseInsensitiveTermNames() throws Exception {
+		Path obo = Files.createTempFile("test-case_", ".obo");
+		obo.toFile().deleteOnExit();
+		// long s and the theta symbol: lower-casing alone does not match them with "S" and "\u0398"
+		Files.write(obo, ("format-version: 1.2\n\n"
+			+ "[Term]\nid: TST:0001\nname: E\u017Fter\n"
+			+ "synonym: \"\u03D1-defensin\" EXACT []\n").getBytes(StandardCharsets.UTF_8));
+
+		// as String.equalsIgnoreCase
+		for (String access : new String[] {"default", "compact", "mapped"}) {
+			final Properties cfg = new Properties();
+			cfg.put("TST", obo.toUri().toString());
+			cfg.put("TST.loader", "stream");
+			cfg.put("TST.access", access);
+
+			OntologyManager manager = new OntologyManagerImpl();
+			manager.loadOntologies(cfg);
+			OntologyTermI t = manager.findTermByAccession("TST:0001");
+			Assertions.assertNotNull(t);
+			for (String name : new String[] {"ester", "ESTER", "E\u017Fter", "\u0398-DEFENSIN", "\u03B8-defensin", "\u03D1-defensin"}) {
+				Assertions.assertEquals(Collections.singleton(t), manager.searchTermByName(name), access + ": " + name);
+			}
+			Assertions.assertTrue(manager.searchTermByName("estes").isEmpty());
+		}
+	}
+
+	@Test
+	public void staleOrCorruptSnapshotIsRejected() throws Exception {
+		Path obo = Files.createTempFile("test-snapshot_", ".obo");
+		obo.toFile().deleteOnExit();
+		Files.copy(getClass().getResourceAsStream("/test-mod.obo"), obo, StandardCopyOption.REPLACE_EXISTING);
+		final String resource = obo.toUri().toString();
+		final Properties cfg = new Properties();
+		cfg.put("MOD", resource);
+		cfg.put("MOD.loader", "stream");
+		cfg.put("MOD.access", "mapped"); // (the terms are read from the snapshot file)
+		// where OntologyManagerImpl saves the snapshot
+		Path snapshot = Paths.get(System.getProperty("java.io.tmpdir"), "MOD_" + resource.hashCode() + "_stream.snapshot");
+		snapshot.toFile().deleteOnExit();
+
+		Assertions.assertNotNull(loadMod(cfg).getTermForAccession("MOD:00048"));
+		final byte[] saved = Files.readAllBytes(snapshot);
+
+		// wrong magic, version, source hash, or checksum (a body byte) - the OBO file is re-parsed, and snapshot re-written
+		for (int pos : new int[] {0, 4, 8, saved.length - 1}) {
+			byte[] bytes = saved.clone();
+			bytes[pos] ^= 1;
+			Files.write(snapshot, bytes);
+			Assertions.assertNotNull(loadMod(cfg).getTermForAccession("MOD:00048"));
+			Assertions.assertArrayEquals(saved, Files.readAllBytes(snapshot), "byte " + pos);
+		}
+
+		// truncated
+		Files.write(snapshot, Arrays.copyOf(saved, saved.length - 100));
+		Assertions.assertNotNull(loadMod(cfg).getTermForAccession("MOD:00048"));
+		Assertions.assertArrayEquals(saved, Files.readAllBytes(snapshot));
+
+		// the source has changed
+		Files.write(obo, "\n[Term]\nid: MOD:99999\nname: new term\n".getBytes(StandardCharsets.UTF_8),
+			StandardOpenOption.APPEND);
+		OntologyAccess oa = loadMod(cfg);
+		Assertions.assertNotNull(oa.getTermForAccession("MOD:99999"));
+		Assertions.assertNotNull(oa.getTermForAccession("MOD:00048"));
+		Assertions.assertFalse(Arrays.equals(saved, Files.readAllBytes(snapshot)));
+	}
+
+	private static OntologyAccess loadMod(Properties cfg) throws Exception {
+		OntologyManager manager = new OntologyManagerImpl();
+		manager.loadOntologies(cfg);
+		OntologyAccess oa = manager.getOntology("MOD");
+		Assertions.assertTrue(oa instanceof MappedOntologyAccess);
+		return oa;
+	}
+
+	@Test
+	public void asyncOntologyLoading() throws Exception {
+		final OntologyManagerImpl manager = new OntologyManagerImpl();
+		Assertions.assertThrows(OntologyLoaderException.class, () -> manager.loadOntologiesAsync(new Properties()));
+		Assertions.assertThrows(OntologyLoaderException.class, () -> manager.loadOntologiesAsync(null));
+
+		final Properties cfg = new Properties();
+		cfg.put("MOD", getClass().getResource("/test-mod.obo").toString());
+		cfg.put("MOD.loader", "stream");
+		cfg.put("NONE", Files.createTempDirectory("test-async_").resolve("none.obo").toUri().toString());
+		cfg.put("NONE.loader", "stream");
+		cfg.put("BAD", getClass().getResource("/test-mod.obo").toString());
+		cfg.put("BAD.loader", "foo");
+
+		Map<String, CompletableFuture<OntologyAccess>> loading = manager.loadOntologiesAsync(cfg);
+		Assertions.assertEquals(new HashSet<>(Arrays.asList("MOD", "NONE", "BAD")), loading.keySet());
+		OntologyLoaderException e = Assertions.assertThrows(OntologyLoaderException.class,
+			() -> OntologyManagerImpl.await(loading));
+
+		// the first failure (in the map order) is the cause, the other one is suppressed
+		List<String> failed = loading.keySet().stream().filter(k -> !k.equals("MOD")).collect(Collectors.toList());
+		Assertions.assertTrue(e.getMessage().contains(failed.toString()));
+		Assertions.assertTrue(e.getCause() instanceof OntologyLoaderException);
+		Assertions.assertTrue(e.getCause().getMessage().contains(" " + failed.get(0) + " "));
+		Assertions.assertEquals(1, e.getSuppressed().length);
+		Assertions.assertTrue(e.getSuppressed()[0].getMessage().contains(" " + failed.get(1) + " "));
+
+		// the good one is loaded anyway
+		Assertions.assertTrue(loading.get("MOD").isDone() && !loading.get("MOD").isCompletedExceptionally());
+		OntologyAccess oa = manager.getOntology("MOD");
+		Assertions.assertNotNull(oa);
+		Assertions.assertSame(oa, loading.get("MOD").join());
+		Assertions.assertNotNull(oa.getTermForAccession("MOD:00048"));
+		Assertions.assertNull(manager.getOntology("NONE"));
+		Assertions.assertNull(manager.getOntology("BAD"));
+
+		// same with the synchronous method
+		e = Assertions.assertThrows(OntologyLoaderException.class, () -> new OntologyManagerImpl().loadOntologies(cfg));
+		Assertions.assertEquals(1, e.getSuppressed().length);
+	}
+
+	@Test
+	public void mappedOntologyLoading() throws Exception {
+
+		final Properties cfg = new Properties();
+		cfg.put("MOD", "classpath:test-mod.obo");
+		cfg.put("MOD.access", "mapped");
+
+		// the first time, it parses the OBO file and saves the snapshot; then - reuses the snapshot
+		for (int i = 0; i < 2; i++) {
+			OntologyManager manager = new OntologyManagerImpl();
+			manager.loadOntologies(cfg);
+			OntologyAccess oa = manager.getOntology("MOD");
+			Assertions.assertTrue(oa instanceof MappedOntologyAccess);
+
+			OntologyTermI t = oa.getTermForAccession("MOD:00048");
+			Assertions.assertNotNull(t);
+			Assertions.assertTrue(t.getPreferredName().equalsIgnoreCase("O4'-phospho-L-tyrosine"));
+			Assertions.assertTrue(oa.getTermsByName("optyr").contains(t));
+			Assertions.assertEquals(t, manager.findTermByAccession("MOD:00048"));
+			Assertions.assertTrue(manager.isChild("MOD:01157", "MOD:00036"));
+			Assertions.assertFalse(manager.isChild("MOD:00036", "MOD:01157"));
+		}
+	}
 }
@@ -1,6 +1,11 @@
 package org.biopax.validator.api;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.biopax.validator.api.beans.ErrorType;
 import org.biopax.validator.api.beans.Validation;
@@ -22,8 +27,21 @@ public abstract class BaseRule<T> implements Rule<T> {
 
   protected ValidatorUtils utils;
 
+  private final Class<?> declaredDomain;
+
   public BaseRule() {
     logger = LoggerFactory.getLogger(this.getClass());
+    declaredDomain = resolveDomain(this.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * This implementation returns the actual type argument T of the rule class
+   * (or its upper bound, if the type argument is not specified).
+   */
+  public Class<?> getDomain() {
+    return declaredDomain;
   }
 
   /**
@@ -89,4 +107,40 @@ public abstract class BaseRule<T> implements Rule<T> {
     return newArgs;
   }
 
+  /*
+   * Finds the actual type argument T of BaseRule
+   * by following the generic superclasses of the rule class.
+   */
+  private static Class<?> resolveDomain(Class<?> ruleClass) {
+    final Map<TypeVariable<?>, Type> typeArgs = new HashMap<>();
+    for (Class<?> c = ruleClass; c != null && c != BaseRule.class; c = c.getSuperclass()) {
+      Type sup = c.getGenericSuperclass();
+      if (sup instanceof ParameterizedType) {
+        ParameterizedType pt = (ParameterizedType) sup;
+        TypeVariable<?>[] vars = ((Class<?>) pt.getRawType()).getTypeParameters();
+        Type[] args = pt.getActualTypeArguments();
+        for (int i = 0; i < vars.length; i++) {
+          typeArgs.put(vars[i], args[i]);
+        }
+      }
+    }
+
+    Type t = BaseRule.class.getTypeParameters()[0];
+    while (t instanceof TypeVariable && typeArgs.containsKey(t)) {
+      t = typeArgs.get(t);
+    }
+    if (t instanceof TypeVariable) { //not resolved; use the bound
+      Type[] bounds = ((TypeVariable<?>) t).getBounds();
+      t = (bounds.length > 0) ? bounds[0] : Object.class;
+    }
+
+    if (t instanceof Class) {
+      return (Class<?>) t;
+    } else if (t instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) t).getRawType();
+    } else {
+      return Object.class;
+    }
+  }
+
 }
@@ -1,5 +1,7 @@
 package org.biopax.validator.api;
 
+import java.util.Objects;
+
 /**
  * A controlled vocabulary (ontology) term restriction.
  *
@@ -43,6 +45,22 @@ public final class CvRestriction {
 		return not;
 	}
 	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof CvRestriction)) return false;
+		CvRestriction that = (CvRestriction) o;
+		return allowed == that.allowed && not == that.not
+			&& Objects.equals(id, that.id)
+			&& Objects.equals(ontologyId, that.ontologyId)
+			&& childrenAllowed == that.childrenAllowed;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, ontologyId, allowed, childrenAllowed, not);
+	}
+	
 	@Override
 	public String toString() {
 		return ((not)? "NOT allowed " : "Valid '") 
@@ -42,7 +42,7 @@ public interface CvUtils {
    * @see #getValidTermNames(Collection)
    *
    * @param restrictions controlled vocabulary restrictions (on type, context, ontology terms)
-   * @return set of valid ontology terms (turned into lower case)
+   * @return set of valid ontology terms (turned into lower case); unmodifiable, can be shared
    */
   Set<String> getValidTermNamesLowerCase(Collection<CvRestriction> restrictions);
 
@@ -62,7 +62,7 @@ public interface CvUtils {
    * all the restrictions in the set.
    *
    * @param restrictions - set of beans that together define the required constraint
-   * @return set of ontology terms
+   * @return set of ontology terms; unmodifiable, can be shared
    */
   Set<OntologyTermI> getValidTerms(Collection<CvRestriction> restrictions);
 
@@ -72,7 +72,7 @@ public interface CvUtils {
    * ('NOT' property, if set 'true', is ignored)
    *
    * @param restriction restriction (on type, context, ontology terms)
-   * @return ontology terms (objects)
+   * @return ontology terms (objects); unmodifiable, can be shared
    */
   Set<OntologyTermI> getTerms(CvRestriction restriction);
 
@@ -28,6 +28,18 @@ public interface Rule<T> {
    */
   boolean canCheck(Object thing);
 
+  /**
+   * Declared domain: the type of objects this rule is about;
+   * {@link #canCheck(Object)} must return false for anything else,
+   * which allows the validator to skip this rule for other types of objects
+   * without calling canCheck.
+   *
+   * @return the class or interface of objects this rule can check (Object.class - any)
+   */
+  default Class<?> getDomain() {
+    return Object.class;
+  }
+
 
   /**
    * Saves the error or warning that occurred or was fixed.
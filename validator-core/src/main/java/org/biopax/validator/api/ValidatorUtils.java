@@ -18,7 +18,7 @@ public interface ValidatorUtils {
 
   static Class[] jaxbContext() {
     return new Class[]{ValidatorResponse.class, Validation.class, ErrorCaseType.class,
-      ErrorType.class, Behavior.class, Category.class};
+      ErrorType.class, Behavior.class, Category.class, RuleStats.class};
   }
 
   /**
@@ -183,6 +183,14 @@ public interface ValidatorUtils {
    */
   Behavior getRuleBehavior(String ruleName, String profile);
 
+  /**
+   * Discards cached rule behaviors (and other settings resolved from the messages),
+   * e.g., after the rules or profiles configuration has changed.
+   * Does nothing by default (when nothing is cached).
+   */
+  default void reload() {
+  }
+
   /**
    * @param ruleName validation rule class name, e.g., org.biopax.validator.rules.MyRule
    * @return rule description
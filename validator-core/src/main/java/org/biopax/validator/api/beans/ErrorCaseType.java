@@ -69,7 +69,8 @@ public class ErrorCaseType implements Serializable, Comparable<ErrorCaseType> {
 
   public int compareTo(ErrorCaseType o) {
     //we only care to list error cases for the same object together
-    return String.valueOf(getObject()).compareToIgnoreCase(o.getObject());
+    int c = String.valueOf(getObject()).compareToIgnoreCase(o.getObject());
+    return (c != 0) ? c : String.valueOf(getReportedBy()).compareToIgnoreCase(String.valueOf(o.getReportedBy()));
   }
 
   @Override
@@ -82,6 +83,25 @@ public class ErrorCaseType implements Serializable, Comparable<ErrorCaseType> {
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder().append(getObject()).append(getReportedBy()).build();
+    //consistent with equals (case-insensitive, in any default locale)
+    return new HashCodeBuilder()
+      .append(foldedHash(String.valueOf(getObject())))
+      .append(foldedHash(String.valueOf(getReportedBy())))
+      .build();
+  }
+
+  /*
+   * Same value for any two strings that are equal ignoring case
+   * (code points mapped to upper, then to lower case, like String.equalsIgnoreCase does;
+   * unlike String.toLowerCase(), it does not depend on the default locale).
+   */
+  private static int foldedHash(String s) {
+    int h = 0;
+    for (int i = 0; i < s.length(); ) {
+      int c = s.codePointAt(i);
+      h = 31 * h + Character.toLowerCase(Character.toUpperCase(c));
+      i += Character.charCount(c);
+    }
+    return h;
   }
 }
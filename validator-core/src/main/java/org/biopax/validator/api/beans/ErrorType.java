@@ -3,7 +3,12 @@ package org.biopax.validator.api.beans;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.*;
 
 @XmlType(name="ErrorType")
@@ -12,15 +17,17 @@ public class ErrorType implements Serializable, Comparable<ErrorType> {
 	
 	private static final long serialVersionUID = 1L;
 	
-	/* 
-	 * Collection of error cases 
-	 * must have unique error types (identified by code).
-	 * This is to be assured by implementing it as HashMap
-	 * and overriding the 'equals' method. 
-	 * 
+	/*
+	 * Error cases, unique by object and rule (see ErrorCaseType#equals),
+	 * in a concurrent map, so that cases reported by different threads
+	 * are merged without locking this object
+	 * (only the existing case being updated is locked).
 	 */
+	@XmlTransient
+	private final ConcurrentMap<ErrorCaseType, ErrorCaseType> cases;
+	// sorted cases; only for the XML (un)marshalling (see beforeMarshal, afterUnmarshal)
 	@XmlElement
-	private final Set<ErrorCaseType> errorCase; 
+	private List<ErrorCaseType> errorCase;
 	@XmlAttribute
 	private String code = null;
 	@XmlAttribute
@@ -29,13 +36,32 @@ public class ErrorType implements Serializable, Comparable<ErrorType> {
 	private Behavior type = Behavior.ERROR; // default
 	@XmlAttribute
 	private Category category = Category.INFORMATION; // default	
-	@XmlAttribute
-	private int notFixedCases = 0;
-	@XmlAttribute
-	private int totalCases = 0;
+	// bound to XML attributes via the getters
+	@XmlTransient
+	private final AtomicInteger notFixedCases;
+	@XmlTransient
+	private final AtomicInteger totalCases;
+
+	/*
+	 * Effect of a new error case on the counters
+	 * (used by the Validation to update its totals).
+	 */
+	enum Change {
+		NONE(0, 0), ADDED(1, 1), ADDED_FIXED(1, 0), FIXED(0, -1), NOT_FIXED(0, 1);
+
+		final int total;
+		final int notFixed;
+
+		Change(int total, int notFixed) {
+			this.total = total;
+			this.notFixed = notFixed;
+		}
+	}
 
 	public ErrorType() {
-		errorCase = new TreeSet<>();
+		cases = new ConcurrentHashMap<>();
+		notFixedCases = new AtomicInteger();
+		totalCases = new AtomicInteger();
 	}
 
 	public ErrorType(String code, Behavior type) {
@@ -53,17 +79,38 @@ public class ErrorType implements Serializable, Comparable<ErrorType> {
 	}
 	
 	/**
-	 * Unmodifiable set of validation current error cases.
+	 * Unmodifiable sorted list (snapshot) of current error cases.
 	 * 
 	 * @return error cases
 	 */
-	public synchronized Collection<ErrorCaseType> getErrorCase() {
-		return Collections.unmodifiableSet(errorCase);
+	public Collection<ErrorCaseType> getErrorCase() {
+		List<ErrorCaseType> list = new ArrayList<>(cases.values());
+		Collections.sort(list);
+		return Collections.unmodifiableList(list);
 	}
 
 	public synchronized void setErrorCase(Collection<ErrorCaseType> errorCases) {
-		errorCase.clear();
-		errorCase.addAll(errorCases);
+		cases.clear();
+		for(ErrorCaseType ec : errorCases) {
+			cases.putIfAbsent(ec, ec);
+		}
+		recount();
+	}
+
+	// current cases, unordered
+	Collection<ErrorCaseType> cases() {
+		return cases.values();
+	}
+
+	private void recount() {
+		int n = 0;
+		for(ErrorCaseType ec : cases.values()) {
+			if(!ec.isFixed()) {
+				n++;
+			}
+		}
+		totalCases.set(cases.size());
+		notFixedCases.set(n);
 	}
 	
 	public String getCode() {
@@ -90,21 +137,67 @@ public class ErrorType implements Serializable, Comparable<ErrorType> {
 	 * to set a biopax property, the last error message
 	 * will override previous ones...)
 	 * 
+	 * The total and not fixed cases counters get updated as well.
+	 * 
 	 * @see ErrorCaseType#equals(Object)
 	 * @see ErrorCaseType#hashCode()
 	 * 
 	 * @param newCase case
 	 */
-	public synchronized void addErrorCase(ErrorCaseType newCase) {
-		ErrorCaseType ect = findErrorCase(newCase);
-		if(ect != null) { //found a previously reported case
+	public void addErrorCase(ErrorCaseType newCase) {
+		merge(newCase);
+	}
+
+	Change merge(ErrorCaseType newCase) {
+		ErrorCaseType ect = cases.putIfAbsent(newCase, newCase);
+		if(ect == null) { //fresh error case
+			totalCases.incrementAndGet();
+			if(newCase.fixed) {
+				return Change.ADDED_FIXED;
+			}
+			notFixedCases.incrementAndGet();
+			return Change.ADDED;
+		}
+
+		//found a previously reported case
+		synchronized (ect) {
+			Change change = Change.NONE;
+			if(ect.fixed != newCase.fixed) {
+				change = (newCase.fixed) ? Change.FIXED : Change.NOT_FIXED;
+				notFixedCases.addAndGet(change.notFixed);
+			}
 			ect.setFixed(newCase.fixed);
-			if(!newCase.fixed) {		
+			if(!newCase.fixed) {
 				// update the message
 				ect.setMessage(newCase.getMessage());
 			}
-		} else { //fresh error case
-			errorCase.add(newCase);
+			return change;
+		}
+	}
+
+	/**
+	 * Marks the existing error case (same object and rule) as fixed,
+	 * and updates the not fixed cases counter.
+	 * 
+	 * @param searchBy case type (as pattern) to match
+	 * @param newMsg a message, if not null/empty, to replace the original one
+	 * @return true if the case was found and it was not fixed before
+	 */
+	public boolean setFixed(ErrorCaseType searchBy, String newMsg) {
+		ErrorCaseType ect = findErrorCase(searchBy);
+		if(ect == null) {
+			return false;
+		}
+		synchronized (ect) {
+			if(ect.isFixed()) {
+				return false;
+			}
+			ect.setFixed(true);
+			notFixedCases.decrementAndGet();
+			if(newMsg != null && !"".equals(newMsg.trim())) {
+				ect.setMessage(newMsg);
+			}
+			return true;
 		}
 	}
 	
@@ -115,8 +208,16 @@ public class ErrorType implements Serializable, Comparable<ErrorType> {
 		}
 	}
 		
-	public synchronized void removeErrorCase(ErrorCaseType eCase) {
-		errorCase.remove(eCase);
+	public void removeErrorCase(ErrorCaseType eCase) {
+		ErrorCaseType ect = cases.remove(eCase);
+		if(ect != null) {
+			synchronized (ect) {
+				totalCases.decrementAndGet();
+				if(!ect.isFixed()) {
+					notFixedCases.decrementAndGet();
+				}
+			}
+		}
 	}
 
 	
@@ -155,27 +256,31 @@ public class ErrorType implements Serializable, Comparable<ErrorType> {
 	}
 	
 	/**
-	 * Total number of error cases registered, including those auto-fixed.
+	 * Total number of error cases registered, including those auto-fixed
+	 * (the counter is updated when cases are added or removed).
 	 * 
 	 * @return number
 	 */
+	@XmlAttribute
 	public int getTotalCases() {
-		return totalCases;
+		return totalCases.get();
 	}
 	public void setTotalCases(int n) {
-		this.totalCases = n;
+		totalCases.set(n);
 	}
 	
 	/**
-	 * Total number of error cases not fixed yet.
+	 * Total number of error cases not fixed yet
+	 * (the counter is updated when cases are added, fixed or removed).
 	 * 
 	 * @return number
 	 */
+	@XmlAttribute
 	public int getNotFixedCases() {
-		return notFixedCases;
+		return notFixedCases.get();
 	}
 	public void setNotFixedCases(int n) {
-		this.notFixedCases = n;
+		notFixedCases.set(n);
 	}
 	
 	/**
@@ -187,9 +292,13 @@ public class ErrorType implements Serializable, Comparable<ErrorType> {
 	 * @return number
 	 */
 	public int countErrors(String forObject, String reportedBy, boolean ignoreFixed) {
+		if(forObject == null && reportedBy == null) {
+			return (ignoreFixed) ? notFixedCases.get() : totalCases.get();
+		}
+
 		int count = 0;
 		
-		for(ErrorCaseType ec: errorCase) {
+		for(ErrorCaseType ec: cases.values()) {
 			if(forObject != null && !forObject.equals(ec.getObject())) {
 				continue;
 			}
@@ -218,15 +327,26 @@ public class ErrorType implements Serializable, Comparable<ErrorType> {
 	 * @param searchBy case type (as pattern) to match
 	 * @return actual error case
 	 */
-	public synchronized ErrorCaseType findErrorCase(final ErrorCaseType searchBy) {
-		if(errorCase.contains(searchBy)) {
-			for (ErrorCaseType ec : getErrorCase()) {
-				if (ec.equals(searchBy)) {
-					return ec;
-				}
-			}
+	public ErrorCaseType findErrorCase(final ErrorCaseType searchBy) {
+		return cases.get(searchBy);
+	}
+
+	// JAXB callback: prepare the sorted list of cases
+	private void beforeMarshal(Marshaller marshaller) {
+		errorCase = new ArrayList<>(getErrorCase());
+	}
+
+	// JAXB callback
+	private void afterMarshal(Marshaller marshaller) {
+		errorCase = null;
+	}
+
+	// JAXB callback: index the cases and update the counters
+	private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+		if(errorCase != null) {
+			setErrorCase(errorCase);
+			errorCase = null;
 		}
-		return null;
 	}
 
 }
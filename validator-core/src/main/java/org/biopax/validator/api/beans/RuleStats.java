@@ -0,0 +1,224 @@
+package org.biopax.validator.api.beans;
+
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.xml.bind.annotation.*;
+
+/**
+ * Performance statistics of a validation rule
+ * (collected during one validation, if enabled, see {@link Validation#setCollectStatistics(boolean)}).
+ *
+ * The check times are in nanoseconds; the percentiles are estimated
+ * using a histogram with power-of-two buckets (i.e., within a factor of two).
+ */
+@XmlType(name="RuleStats")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class RuleStats implements Serializable, Comparable<RuleStats> {
+	private static final long serialVersionUID = 1L;
+
+	@XmlAttribute
+	private String rule;
+	// bound to XML attributes via the getters
+	@XmlTransient
+	private final LongAdder invocations;
+	@XmlTransient
+	private final LongAdder hits;
+	@XmlTransient
+	private final LongAdder errors;
+	@XmlTransient
+	private final LongAdder totalTime;
+	@XmlTransient
+	private final AtomicLong maxTime;
+	// counts of check() times t, where 2^(i-1) <= t < 2^i nanoseconds
+	@XmlTransient
+	private final AtomicLongArray histogram;
+	// percentiles read from XML (there is no histogram then)
+	@XmlTransient
+	private long medianTime;
+	@XmlTransient
+	private long p95Time;
+
+	public RuleStats() {
+		invocations = new LongAdder();
+		hits = new LongAdder();
+		errors = new LongAdder();
+		totalTime = new LongAdder();
+		maxTime = new AtomicLong();
+		histogram = new AtomicLongArray(Long.SIZE + 1);
+	}
+
+	public RuleStats(String rule) {
+		this();
+		this.rule = rule;
+	}
+
+	/**
+	 * Records one rule invocation (canCheck and, if applicable, check).
+	 *
+	 * @param applicable whether the rule's canCheck returned true
+	 * @param nanos check time (when applicable)
+	 */
+	public void record(boolean applicable, long nanos) {
+		invocations.increment();
+		if(applicable) {
+			hits.increment();
+			totalTime.add(nanos);
+			maxTime.accumulateAndGet(nanos, Math::max);
+			histogram.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0)));
+		}
+	}
+
+	/**
+	 * Counts new error cases reported by the rule.
+	 *
+	 * @param n no. cases
+	 */
+	public void addErrors(int n) {
+		errors.add(n);
+	}
+
+	/**
+	 * @return validation rule (class) name
+	 */
+	public String getRule() {
+		return rule;
+	}
+	public void setRule(String rule) {
+		this.rule = rule;
+	}
+
+	/**
+	 * @return the number of times the rule was applied (its canCheck called)
+	 */
+	@XmlAttribute
+	public long getInvocations() {
+		return invocations.sum();
+	}
+	public void setInvocations(long n) {
+		invocations.reset();
+		invocations.add(n);
+	}
+
+	/**
+	 * @return the number of objects actually checked (canCheck returned true)
+	 */
+	@XmlAttribute
+	public long getHits() {
+		return hits.sum();
+	}
+	public void setHits(long n) {
+		hits.reset();
+		hits.add(n);
+	}
+
+	/**
+	 * @return new error cases reported by the rule
+	 */
+	@XmlAttribute
+	public long getErrors() {
+		return errors.sum();
+	}
+	public void setErrors(long n) {
+		errors.reset();
+		errors.add(n);
+	}
+
+	/**
+	 * @return cumulative check time (ns)
+	 */
+	@XmlAttribute
+	public long getTotalTime() {
+		return totalTime.sum();
+	}
+	public void setTotalTime(long nanos) {
+		totalTime.reset();
+		totalTime.add(nanos);
+	}
+
+	/**
+	 * @return max. check time (ns)
+	 */
+	@XmlAttribute
+	public long getMaxTime() {
+		return maxTime.get();
+	}
+	public void setMaxTime(long nanos) {
+		maxTime.set(nanos);
+	}
+
+	/**
+	 * @return approx. median check time (ns)
+	 */
+	@XmlAttribute
+	public long getMedianTime() {
+		return (getHits() > 0 && medianTime == 0) ? percentile(0.5) : medianTime;
+	}
+	public void setMedianTime(long nanos) {
+		medianTime = nanos;
+	}
+
+	/**
+	 * @return approx. 95th percentile of the check time (ns)
+	 */
+	@XmlAttribute
+	public long getP95Time() {
+		return (getHits() > 0 && p95Time == 0) ? percentile(0.95) : p95Time;
+	}
+	public void setP95Time(long nanos) {
+		p95Time = nanos;
+	}
+
+	/**
+	 * Estimates the check time percentile
+	 * (the upper bound of the histogram bucket, not greater than the max. time).
+	 *
+	 * @param q quantile, 0 &lt; q &lt;= 1
+	 * @return time (ns), or 0 if there was no data recorded
+	 */
+	public long percentile(double q) {
+		long count = 0;
+		for(int i = 0; i < histogram.length(); i++)
+			count += histogram.get(i);
+		if(count == 0)
+			return 0;
+
+		final long rank = (long) Math.ceil(q * count);
+		long seen = 0;
+		int i = 0;
+		for(; i < histogram.length() - 1; i++) {
+			seen += histogram.get(i);
+			if(seen >= rank)
+				break;
+		}
+		long upper = (i < Long.SIZE - 1) ? (1L << i) - 1 : Long.MAX_VALUE;
+		return Math.min(upper, getMaxTime());
+	}
+
+	/**
+	 * @return fraction of the invocations when the rule actually checked the object
+	 */
+	@XmlTransient
+	public double getHitRatio() {
+		long n = getInvocations();
+		return (n > 0) ? (double) getHits() / n : 0;
+	}
+
+	/**
+	 * Orders by the total time, descending (the slowest rule goes first),
+	 * then by the rule name.
+	 */
+	public int compareTo(RuleStats o) {
+		int c = Long.compare(o.getTotalTime(), getTotalTime());
+		return (c != 0) ? c : String.valueOf(rule).compareTo(String.valueOf(o.rule));
+	}
+
+	@Override
+	public String toString() {
+		return rule + " (invocations: " + getInvocations() + ", hits: " + getHits()
+			+ ", errors: " + getErrors() + ", time: " + getTotalTime() + " ns)";
+	}
+}
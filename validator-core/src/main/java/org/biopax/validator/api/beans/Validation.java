@@ -4,7 +4,11 @@ package org.biopax.validator.api.beans;
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.*;
 
 import org.apache.commons.text.StringEscapeUtils;
@@ -34,18 +38,31 @@ public class Validation implements Serializable {
 
 	@XmlElement
 	private String modelData; //cannot store more than ~1Gb data.
+	// sorted error types; only for the XML (un)marshalling (see beforeMarshal, afterUnmarshal)
 	@XmlElement
-	private final Set<ErrorType> error;
+	private List<ErrorType> error;
+	// errors by type and code (see ErrorType#equals)
+	@XmlTransient
+	private final ConcurrentMap<ErrorType, ErrorType> errors;
 	@XmlAttribute
 	private String description;
 	@XmlElement
 	private final Set<String> comment;
-	@XmlAttribute
-	private int notFixedProblems = 0;
-	@XmlAttribute
-	private int notFixedErrors = 0;
-	@XmlAttribute
-	private int totalProblemsFound = 0;
+	// per-rule statistics (optional); only for the XML (un)marshalling
+	@XmlElement
+	private List<RuleStats> statistics;
+	// per-rule statistics by rule name (empty unless enabled)
+	@XmlTransient
+	private final ConcurrentMap<String, RuleStats> ruleStats;
+	@XmlTransient
+	private boolean collectStatistics;
+	// running totals (updated on add/fix); bound to XML attributes via the getters
+	@XmlTransient
+	private final AtomicInteger notFixedProblems;
+	@XmlTransient
+	private final AtomicInteger notFixedErrors;
+	@XmlTransient
+	private final AtomicInteger totalProblemsFound;
 	@XmlAttribute
 	private boolean fix;
 	@XmlAttribute
@@ -65,10 +82,15 @@ public class Validation implements Serializable {
 	 * @param idCalculator a strategy object to get a domain-specific identifier (for reporting)
 	 */
 	public Validation(Identifier idCalculator) {
-		this.error = new TreeSet<>();
+		this.errors = new ConcurrentHashMap<>();
+		this.notFixedProblems = new AtomicInteger();
+		this.notFixedErrors = new AtomicInteger();
+		this.totalProblemsFound = new AtomicInteger();
 		this.objects = Collections.newSetFromMap(new ConcurrentHashMap<>());
 		this.description = "unknown";
 		this.comment = new HashSet<>();
+		this.ruleStats = new ConcurrentHashMap<>();
+		this.collectStatistics = false;
 		this.fix = false;
 		this.threshold = Behavior.WARNING;
 		this.maxErrors = Integer.MAX_VALUE;
@@ -142,7 +164,7 @@ public class Validation implements Serializable {
 	}
 
 	/**
-	 * List of error types; each item has unique code.
+	 * Sorted list (snapshot) of error types; each item has unique code.
 	 * 
 	 * (Note: the property name is 'Error', and not 'Errors',
 	 * simply for the simpler object-XML binding.)
@@ -150,7 +172,9 @@ public class Validation implements Serializable {
 	 * @return errors (each has unique error code, e.g., syntax.error)
 	 */
 	public Collection<ErrorType> getError() {
-		return error;
+		List<ErrorType> list = new ArrayList<>(errors.values());
+		Collections.sort(list);
+		return Collections.unmodifiableList(list);
 	}
 
 	/**
@@ -159,8 +183,13 @@ public class Validation implements Serializable {
 	 * @param errors collected errors
 	 */
 	public synchronized void setError(Collection<ErrorType> errors) {
-		error.clear();
-		error.addAll(errors);
+		this.errors.clear();
+		for(ErrorType et : errors) {
+			this.errors.putIfAbsent(et, et);
+		}
+		totalProblemsFound.set(countErrors(null, null, null, null, false, false, false));
+		notFixedProblems.set(countErrors(null, null, null, null, false, true, false));
+		notFixedErrors.set(countErrors(null, null, null, null, true, true, false));
 	}
 
 	/**
@@ -213,7 +242,7 @@ public class Validation implements Serializable {
 	 * the new error cases will be copied to it;
 	 * otherwise, the new one is simply added to the set.
 	 * 
-	 * It also updates the not-fixed errors counter,
+	 * It also updates the total, not-fixed problems and errors counters,
 	 * taking into account current validation threshold (level)
 	 * and error's own type {@link Behavior} set by a validation rule
 	 * that created it!
@@ -222,19 +251,31 @@ public class Validation implements Serializable {
 	 * @see ErrorType#hashCode()
 	 * @see ErrorType#equals(Object)
 	 * 
+	 * Error types and cases are stored in concurrent maps, 
+	 * so that rules, which run in parallel, do not block each other here
+	 * (unless the max. errors limit is set: then the limit check and adding 
+	 * the error happen atomically).
+	 * 
 	 * @param e Error type
 	 */
-	public synchronized void addError(ErrorType e) {	
-		
-		int numNotFixedErrors = countErrors(null, null, null, null, true, true);
-
-		if(isMaxErrorsSet() && numNotFixedErrors >= getMaxErrors())
-		{
-			log.info("Won't save the case: max. errors " +
-				"limit exceeded for " + getDescription());
-			return;
-		}	
+	public void addError(ErrorType e) {	
 		
+		if(isMaxErrorsSet()) {
+			synchronized (this) {
+				if(isMaxErrorsReached())
+				{
+					log.info("Won't save the case: max. errors " +
+						"limit exceeded for " + getDescription());
+					return;
+				}
+				add(e);
+			}
+		} else {
+			add(e);
+		}
+	}
+
+	private void add(ErrorType e) {
 		switch (threshold) {
 		case IGNORE:
 			break; // do nothing
@@ -243,22 +284,85 @@ public class Validation implements Serializable {
 				break; // do not add (only errors pass)
 			}
 		default: // add error with all cases
-			synchronized (this) {
-				if (error.contains(e)) {
-					for (ErrorType et : error) {
-						if (et.equals(e)) {
-							et.addCases(e.getErrorCase());
-							break;
-						}
-					}
-				} else { // adding a new error type (code)
-					error.add(e);
+			// counts of the new error, before it can be updated by another thread
+			final int total = e.getTotalCases();
+			final int notFixed = e.getNotFixedCases();
+			ErrorType et = errors.putIfAbsent(e, e);
+			if (et == null) { // added a new error type (code)
+				updateCounters(e.getType(), total, notFixed);
+				if (collectStatistics) {
+					for (ErrorCaseType ec : e.cases())
+						countRuleErrors(ec.getReportedBy(), 1);
+				}
+			} else {
+				for (ErrorCaseType ec : e.cases()) {
+					ErrorType.Change change = et.merge(ec);
+					updateCounters(et.getType(), change.total, change.notFixed);
+					if (collectStatistics && change.total > 0)
+						countRuleErrors(ec.getReportedBy(), change.total);
 				}
 			}
 			break;
 		}
 	}
 
+	private void updateCounters(Behavior type, int total, int notFixed) {
+		totalProblemsFound.addAndGet(total);
+		notFixedProblems.addAndGet(notFixed);
+		if(type == Behavior.ERROR) {
+			notFixedErrors.addAndGet(notFixed);
+		}
+	}
+
+	private void countRuleErrors(String rule, int n) {
+		if (rule != null)
+			getRuleStats(rule).addErrors(n);
+	}
+
+	/**
+	 * Whether to collect the per-rule statistics 
+	 * (invocations, time, errors) during the validation.
+	 * 
+	 * @return true if enabled (default is false)
+	 */
+	@XmlTransient
+	public boolean isCollectStatistics() {
+		return collectStatistics;
+	}
+
+	/**
+	 * Enables or disables collecting the per-rule statistics
+	 * (then, these are included in the report).
+	 * 
+	 * @param enabled true/false
+	 */
+	public void setCollectStatistics(boolean enabled) {
+		this.collectStatistics = enabled;
+	}
+
+	/**
+	 * Gets (creates if not exists) the statistics record of the rule.
+	 * 
+	 * @param rule validation rule name
+	 * @return rule statistics
+	 */
+	public RuleStats getRuleStats(String rule) {
+		return ruleStats.computeIfAbsent(rule, RuleStats::new);
+	}
+
+	/**
+	 * Per-rule statistics (snapshot), sorted by the total time, descending
+	 * (empty unless the statistics were enabled).
+	 * 
+	 * @see #setCollectStatistics(boolean)
+	 * @return rule statistics
+	 */
+	public Collection<RuleStats> getStatistics() {
+		List<RuleStats> list = new ArrayList<>(ruleStats.values());
+		Collections.sort(list);
+		return Collections.unmodifiableList(list);
+	}
+
 	/**
 	 * Sets the information about this validation task. 
 	 * 
@@ -336,28 +440,7 @@ public class Validation implements Serializable {
 	 *
 	 */
 	private ErrorType findErrorType(ErrorType errorType) {
-		if(getError().contains(errorType)) {
-			for(ErrorType et: getError()) {
-				if(et.equals(errorType)) {
-					return et;
-				}
-			}
-		} 
-		return null;
-	}
-
-	/*
-	 * Finds the same error case in the registry.
-	 * 
-	 * @see ErrorType#equals(Object)
-	 * @see ErrorType#hashCode()
-	 * @see ErrorCaseType#equals(Object)
-	 * @see ErrorCaseType#hashCode()
-	 *
-	 */
-	private ErrorCaseType findErrorCase(ErrorType errorType, ErrorCaseType errCase) {
-		ErrorType e = findErrorType(errorType);
-		return (e != null) ? e.findErrorCase(errCase) : null;
+		return errors.get(errorType);
 	}
 
 	/**
@@ -375,9 +458,21 @@ public class Validation implements Serializable {
 	 */
 	public int countErrors(String forObject, String reportedBy, 
 			String code, Category category, boolean ignoreWarnings, boolean ignoreFixed) {
+		return countErrors(forObject, reportedBy, code, category, ignoreWarnings, ignoreFixed, true);
+	}
+
+	private int countErrors(String forObject, String reportedBy, String code, Category category,
+			boolean ignoreWarnings, boolean ignoreFixed, boolean useCounters) {
+		// the totals are maintained incrementally
+		if(useCounters && forObject == null && reportedBy == null && code == null && category == null
+			&& (ignoreFixed || !ignoreWarnings)) {
+			return (!ignoreFixed) ? totalProblemsFound.get()
+				: (ignoreWarnings) ? notFixedErrors.get() : notFixedProblems.get();
+		}
+
 		int count = 0;
 		
-		for(ErrorType et : getError()) {
+		for(ErrorType et : errors.values()) {
 			// skip warnings?
 			if(ignoreWarnings && et.getType() == Behavior.WARNING) {
 				continue;
@@ -455,11 +550,12 @@ public class Validation implements Serializable {
 	 * 
 	 * @return number of different type of error/warning
 	 */
+	@XmlAttribute
 	public int getTotalProblemsFound() {
-		return totalProblemsFound;
+		return totalProblemsFound.get();
 	}
 	public void setTotalProblemsFound(int n) {
-		this.totalProblemsFound = n;
+		totalProblemsFound.set(n);
 	}
 
 	/**
@@ -467,22 +563,24 @@ public class Validation implements Serializable {
 	 * {@link Behavior#WARNING} cases, NOT fixed.
 	 * @return the no. not fixed warning or error cases
 	 */
-	public synchronized int getNotFixedProblems() {
-		return notFixedProblems;
+	@XmlAttribute
+	public int getNotFixedProblems() {
+		return notFixedProblems.get();
 	}
 	public void setNotFixedProblems(int n) {
-		notFixedProblems = n;
+		notFixedProblems.set(n);
 	}
 
 	/** 
 	 * Total number of NOT fixed {@link Behavior#ERROR} cases.
 	 * @return the no. not fixed error cases
 	 */
-	public synchronized int getNotFixedErrors() {
-		return notFixedErrors;
+	@XmlAttribute
+	public int getNotFixedErrors() {
+		return notFixedErrors.get();
 	}
 	public void setNotFixedErrors(int n) {
-		notFixedErrors = n;
+		notFixedErrors.set(n);
 	}
 
 	/** 
@@ -496,21 +594,15 @@ public class Validation implements Serializable {
 	 */	
 	public void setFixed(String objectId, String rule, String errCode, String newMsg) 
 	{
-		Behavior type = Behavior.WARNING;
-		ErrorCaseType ect = findErrorCase(new ErrorType(errCode, type), 
-			new ErrorCaseType(rule, objectId, null)); // msg is ignored when comparing errors anyway
-		
-		if(ect == null) {
-			type = Behavior.ERROR;
-			ect = findErrorCase(
-				new ErrorType(errCode, type), 
-				new ErrorCaseType(rule, objectId, null));
+		// msg is ignored when comparing errors anyway
+		ErrorCaseType searchBy = new ErrorCaseType(rule, objectId, null);
+		ErrorType et = findErrorType(new ErrorType(errCode, Behavior.WARNING));
+		if(et == null || et.findErrorCase(searchBy) == null) {
+			et = findErrorType(new ErrorType(errCode, Behavior.ERROR));
 		}
 		
-		if(ect != null && !ect.isFixed()) {
-			ect.setFixed(true);
-			if(newMsg != null && !"".equals(newMsg.trim()))
-				ect.setMessage(newMsg);
+		if(et != null && et.setFixed(searchBy, newMsg)) {
+			updateCounters(et.getType(), 0, -1);
 		}
 	}
 	
@@ -546,6 +638,17 @@ public class Validation implements Serializable {
 			&& this.maxErrors < Integer.MAX_VALUE;
 	}
 	
+	/**
+	 * Whether the number of not fixed errors has reached the limit
+	 * (then new error cases are not saved, and the validator may stop checking).
+	 * 
+	 * @return true iif {@link #isMaxErrorsSet()} and there are at least {@link #getMaxErrors()} not fixed errors
+	 */
+	@XmlTransient
+	public boolean isMaxErrorsReached() {
+		return isMaxErrorsSet() && notFixedErrors.get() >= maxErrors;
+	}
+
 	/**
 	 * Gets normalizer settings.
 	 * @return settings
@@ -587,4 +690,29 @@ public class Validation implements Serializable {
 		return idCalc.identify(obj);
 	}
 
-} 
\ No newline at end of file
+	// JAXB callback: prepare the sorted lists of errors and rule statistics (if any)
+	private void beforeMarshal(Marshaller marshaller) {
+		error = new ArrayList<>(getError());
+		statistics = (ruleStats.isEmpty()) ? null : new ArrayList<>(getStatistics());
+	}
+
+	// JAXB callback
+	private void afterMarshal(Marshaller marshaller) {
+		error = null;
+		statistics = null;
+	}
+
+	// JAXB callback: index the errors and update the counters
+	private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+		if(error != null) {
+			setError(error);
+			error = null;
+		}
+		if(statistics != null) {
+			for(RuleStats rs : statistics)
+				ruleStats.put(rs.getRule(), rs);
+			statistics = null;
+		}
+	}
+
+}